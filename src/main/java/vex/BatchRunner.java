@@ -0,0 +1,163 @@
+package vex;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs a script of commands against a task list as a single batch.
+ * <p>
+ * Lines are read through a large buffer and run in order as if typed at the
+ * console. Changes are not saved as each command runs: storage holds them
+ * back and writes them as one snapshot when the script ends, so a script
+ * that cannot be read to the end changes nothing on disk. A failing command
+ * does not stop the batch; its error is kept with its line number for the
+ * {@link Report}.
+ * </p>
+ * <p>
+ * Blank lines are skipped, and a "bye" line ends the script early.
+ * </p>
+ */
+final class BatchRunner {
+
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final long NANOS_PER_MILLI = 1_000_000;
+    private static final long NANOS_PER_SECOND = 1_000_000_000;
+
+    private final TaskList tasks;
+    private final Storage storage;
+    private final Ui ui;
+
+    /**
+     * Creates a runner.
+     *
+     * @param tasks   Task list the commands change
+     * @param storage Storage the result is saved to
+     * @param ui      Recording Ui the commands report to; it prints their output only if it prints at all
+     * @throws IllegalArgumentException If any argument is null
+     */
+    BatchRunner(TaskList tasks, Storage storage, Ui ui) {
+        if (tasks == null || storage == null || ui == null) {
+            throw new IllegalArgumentException("tasks/storage/ui must not be null");
+        }
+        this.tasks = tasks;
+        this.storage = storage;
+        this.ui = ui;
+    }
+
+    /**
+     * Runs every command of a script file, read as UTF-8, and saves the result once.
+     *
+     * @param script Path of the script
+     * @return The outcome of the batch
+     * @throws IOException If the script cannot be read; nothing is saved
+     */
+    Report run(Path script) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(script), StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+            return run(reader);
+        }
+    }
+
+    /**
+     * Runs every command read from a reader, and saves the result once.
+     *
+     * @param reader Source of the commands, one per line
+     * @return The outcome of the batch
+     * @throws IOException If reading fails; nothing is saved
+     */
+    Report run(BufferedReader reader) throws IOException {
+        long start = System.nanoTime();
+        List<String> errorLines = new ArrayList<>();
+        int commandCount = 0;
+        int failedCount = 0;
+
+        storage.beginBatch();
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (Vex.isBye(line)) {
+                break;
+            }
+
+            commandCount++;
+            ui.clearMessages();
+            Parser.handleCommand(line, tasks, ui, storage);
+            if (!ui.getErrors().isEmpty()) {
+                failedCount++;
+                for (String error : ui.getErrors()) {
+                    errorLines.add("Line " + lineNumber + ": " + error);
+                }
+            }
+        }
+        ui.clearMessages();
+        boolean isSaved = storage.commitBatch(tasks.getTasks());
+
+        return new Report(commandCount, failedCount, errorLines, tasks.size(), System.nanoTime() - start, isSaved);
+    }
+
+    /**
+     * The outcome of a batch: how many commands ran, which failed, how long it took, and whether it was saved.
+     */
+    static final class Report {
+        private final int commandCount;
+        private final int failedCount;
+        private final List<String> errorLines;
+        private final int taskCount;
+        private final long elapsedNanos;
+        private final boolean isSaved;
+
+        Report(int commandCount, int failedCount, List<String> errorLines, int taskCount, long elapsedNanos,
+                boolean isSaved) {
+            this.commandCount = commandCount;
+            this.failedCount = failedCount;
+            this.errorLines = Collections.unmodifiableList(errorLines);
+            this.taskCount = taskCount;
+            this.elapsedNanos = elapsedNanos;
+            this.isSaved = isSaved;
+        }
+
+        int getCommandCount() {
+            return commandCount;
+        }
+
+        /** Returns the number of commands that showed at least one error. */
+        int getFailedCount() {
+            return failedCount;
+        }
+
+        /** Returns one line per error, such as "Line 12: That target does not exist in this lane." */
+        List<String> getErrorLines() {
+            return errorLines;
+        }
+
+        /** Returns the number of tasks in the list after the batch. */
+        int getTaskCount() {
+            return taskCount;
+        }
+
+        /** Returns the time taken to run the commands and save the result. */
+        long getElapsedMillis() {
+            return elapsedNanos / NANOS_PER_MILLI;
+        }
+
+        /** Returns the commands run per second, over the time taken including the save. */
+        long getCommandsPerSecond() {
+            return elapsedNanos == 0 ? 0 : commandCount * NANOS_PER_SECOND / elapsedNanos;
+        }
+
+        boolean isSaved() {
+            return isSaved;
+        }
+    }
+}
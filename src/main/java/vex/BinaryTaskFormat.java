@@ -0,0 +1,355 @@
+package vex;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Reads and writes the compact binary save format.
+ * <p>
+ * Layout: the magic bytes {@code VEXB}, a version byte, the last journal
+ * sequence as a varint, then one record per task. A record starts with a flag
+ * byte holding the task type in the low two bits and the done flag in bit 2,
+ * followed by the varint-length-prefixed UTF-8 description. Deadlines then
+ * store the due time as a zigzag varint of minutes since the epoch (UTC);
+ * events store the start time the same way followed by the duration in
+ * minutes. Times are kept at minute resolution, which is all that user input
+ * can express. From version 2 on, every record is followed by the big-endian
+ * CRC-32 of its bytes; version 1 files without checksums are still read.
+ * From version 3 on, the flag byte is followed by the task ID as a varint;
+ * tasks from older files have no ID until one is assigned.
+ * From version 4 on, bit 3 of the flag byte marks a recurring task, whose
+ * times are followed by its rule as two varints: the interval shifted left
+ * by two with the unit in the low bits, then the end date as days after the
+ * first occurrence plus one, or 0 if the task repeats forever.
+ * </p>
+ */
+class BinaryTaskFormat {
+
+    static final int VERSION = 4;
+
+    private static final int FIRST_CHECKSUMMED_VERSION = 2;
+    private static final int FIRST_VERSION_WITH_IDS = 3;
+
+    private static final byte[] MAGIC = {'V', 'E', 'X', 'B'};
+
+    private static final int TYPE_TODO = 0;
+    private static final int TYPE_DEADLINE = 1;
+    private static final int TYPE_EVENT = 2;
+    private static final int TYPE_MASK = 0b11;
+    private static final int DONE_FLAG = 0b100;
+    private static final int RECURRING_FLAG = 0b1000;
+    private static final int UNIT_BITS = 2;
+
+    /** Upper bound on a single description, so a corrupted length cannot exhaust the heap. */
+    private static final int MAX_DESCRIPTION_BYTES = 1 << 20;
+
+    private BinaryTaskFormat() {
+    }
+
+    /**
+     * Returns the number of leading bytes needed by {@link #hasMagic(byte[], int)}.
+     *
+     * @return Magic length in bytes
+     */
+    static int magicLength() {
+        return MAGIC.length;
+    }
+
+    /**
+     * Checks whether the given leading bytes of a file are the binary magic.
+     *
+     * @param head   First bytes of the file
+     * @param length Number of valid bytes in head
+     * @return true if the file is in binary format
+     */
+    static boolean hasMagic(byte[] head, int length) {
+        if (length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (head[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the header and all tasks.
+     *
+     * @param out      Destination stream, ideally buffered
+     * @param tasks    Tasks to write
+     * @param sequence Last journal sequence contained in tasks
+     * @throws IOException If writing fails
+     */
+    static void write(OutputStream out, List<Task> tasks, long sequence) throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+        writeVarLong(out, Math.max(sequence, 0));
+
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        CRC32 crc = new CRC32();
+        for (Task task : tasks) {
+            if (task == null) {
+                continue;
+            }
+            record.reset();
+            writeTask(record, task);
+            record.writeTo(out);
+
+            crc.reset();
+            crc.update(record.toByteArray());
+            writeInt(out, (int) crc.getValue());
+        }
+    }
+
+    private static void writeTask(OutputStream out, Task task) throws IOException {
+        int flags = task.isDone() ? DONE_FLAG : 0;
+        if (task instanceof Deadlines) {
+            flags |= TYPE_DEADLINE;
+        } else if (task instanceof Events) {
+            flags |= TYPE_EVENT;
+        } else {
+            flags |= TYPE_TODO;
+        }
+        if (task.isRecurring()) {
+            flags |= RECURRING_FLAG;
+        }
+        out.write(flags);
+        writeVarLong(out, task.getId());
+
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, description.length);
+        out.write(description);
+
+        if (task instanceof Deadlines) {
+            writeVarLong(out, zigzag(toEpochMinute(((Deadlines) task).getBy())));
+        } else if (task instanceof Events) {
+            Events event = (Events) task;
+            long from = toEpochMinute(event.getFrom());
+            writeVarLong(out, zigzag(from));
+            writeVarLong(out, toEpochMinute(event.getTo()) - from);
+        }
+
+        Recurrence recurrence = task.getRecurrence();
+        if (recurrence != null) {
+            writeVarLong(out, ((long) recurrence.getInterval() << UNIT_BITS) | recurrence.getUnit().ordinal());
+            LocalDate until = recurrence.getUntil();
+            writeVarLong(out, until == null ? 0 : until.toEpochDay() - task.getStartDate().toEpochDay() + 1);
+        }
+    }
+
+    /**
+     * Reads all tasks following the header into the given list.
+     * A record that fails its checksum or has invalid fields is reported and
+     * skipped; a truncated file keeps every task read before the truncation.
+     *
+     * @param in          Source stream positioned at the start of the file, ideally buffered
+     * @param tasks       List that receives the decoded tasks
+     * @param lostRecords Receives a description of every record that could not be read
+     * @param damaged     Receives the lost records that failed their checksum but still name their task
+     * @return Last journal sequence stored in the header
+     * @throws IOException If the header is invalid or reading fails
+     */
+    static long read(InputStream in, List<Task> tasks, List<String> lostRecords, List<DamagedRecord> damaged)
+            throws IOException {
+        byte[] head = in.readNBytes(MAGIC.length);
+        if (!hasMagic(head, head.length)) {
+            throw new IOException("Not a binary save file");
+        }
+        int version = in.read();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported binary save version: " + version);
+        }
+        long sequence = readVarLong(in);
+
+        boolean hasChecksums = version >= FIRST_CHECKSUMMED_VERSION;
+        boolean hasIds = version >= FIRST_VERSION_WITH_IDS;
+        CRC32 crc = new CRC32();
+        CheckedInputStream checked = new CheckedInputStream(in, crc);
+        int recordNumber = 0;
+
+        while (true) {
+            crc.reset();
+            int flags = checked.read();
+            if (flags < 0) {
+                break;
+            }
+            recordNumber++;
+            try {
+                Task task = readTask(checked, flags, hasIds);
+                boolean isIntact = !hasChecksums || readInt(in) == (int) crc.getValue();
+                if (!isIntact) {
+                    System.out.println("Ignoring corrupted data: checksum mismatch in record " + recordNumber);
+                    String description = "record " + recordNumber + ": checksum mismatch";
+                    lostRecords.add(description);
+                    if (task != null && task.getId() > 0) {
+                        damaged.add(new DamagedRecord(task.getId(), tasks.size(), description));
+                    }
+                } else if (task == null) {
+                    lostRecords.add("record " + recordNumber + ": invalid fields");
+                } else {
+                    tasks.add(task);
+                }
+            } catch (EOFException | StreamCorruptedException e) {
+                System.out.println("Ignoring corrupted data: unreadable record after task " + tasks.size());
+                lostRecords.add("record " + recordNumber + " and everything after it: unreadable");
+                break;
+            }
+        }
+        return sequence;
+    }
+
+    private static Task readTask(InputStream in, int flags, boolean hasId) throws IOException {
+        long id = hasId ? readVarLong(in) : 0;
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            throw new StreamCorruptedException("Task ID out of range: " + id);
+        }
+        long length = readVarLong(in);
+        if (length < 0 || length > MAX_DESCRIPTION_BYTES) {
+            throw new StreamCorruptedException("Description length out of range: " + length);
+        }
+        byte[] bytes = in.readNBytes((int) length);
+        if (bytes.length < length) {
+            throw new EOFException();
+        }
+        String description = new String(bytes, StandardCharsets.UTF_8);
+
+        boolean isRecurring = (flags & RECURRING_FLAG) != 0;
+        Task task;
+        try {
+            switch (flags & TYPE_MASK) {
+            case TYPE_TODO:
+                task = new ToDos(description);
+                break;
+            case TYPE_DEADLINE:
+                long due = unzigzag(readVarLong(in));
+                long[] dueRule = isRecurring ? readRule(in) : null;
+                task = dueRule == null
+                        ? new Deadlines(description, fromEpochMinute(due))
+                        : new RecurringDeadlines(description, fromEpochMinute(due), toRecurrence(dueRule, due));
+                break;
+            case TYPE_EVENT:
+                long from = unzigzag(readVarLong(in));
+                long to = from + readVarLong(in);
+                long[] eventRule = isRecurring ? readRule(in) : null;
+                task = eventRule == null
+                        ? new Events(description, fromEpochMinute(from), fromEpochMinute(to))
+                        : new RecurringEvents(description, fromEpochMinute(from), fromEpochMinute(to),
+                                toRecurrence(eventRule, from));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown task type: " + (flags & TYPE_MASK));
+            }
+        } catch (IllegalArgumentException | DateTimeException e) {
+            System.out.println("Ignoring corrupted data: " + description);
+            return null;
+        }
+
+        if ((flags & DONE_FLAG) != 0) {
+            task.markAsDone();
+        }
+        if (id > 0) {
+            task.assignId((int) id);
+        }
+        return task;
+    }
+
+    /** Reads the two varints of a recurrence rule, so the record is consumed even if they are invalid. */
+    private static long[] readRule(InputStream in) throws IOException {
+        return new long[] {readVarLong(in), readVarLong(in)};
+    }
+
+    private static Recurrence toRecurrence(long[] rule, long firstMinute) {
+        long interval = rule[0] >>> UNIT_BITS;
+        int unit = (int) (rule[0] & ((1 << UNIT_BITS) - 1));
+        if (interval > Integer.MAX_VALUE || unit >= Recurrence.Unit.values().length || rule[1] < 0) {
+            throw new IllegalArgumentException("Invalid repeat rule");
+        }
+        LocalDate until = rule[1] == 0 ? null : fromEpochMinute(firstMinute).toLocalDate().plusDays(rule[1] - 1);
+        return new Recurrence((int) interval, Recurrence.Unit.values()[unit], until);
+    }
+
+    /**
+     * Converts a date-time to whole minutes since the epoch, treating it as UTC.
+     * Seconds and below are dropped.
+     *
+     * @param dateTime Date-time to convert
+     * @return Minutes since 1970-01-01T00:00
+     */
+    static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Converts minutes since the epoch back to a date-time.
+     *
+     * @param epochMinute Minutes since 1970-01-01T00:00
+     * @return The corresponding date-time
+     */
+    static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeInt(OutputStream out, int value) throws IOException {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static int readInt(InputStream in) throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value = (value << 8) | b;
+        }
+        return value;
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Malformed varint");
+    }
+}
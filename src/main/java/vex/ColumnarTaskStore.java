@@ -0,0 +1,188 @@
+package vex;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps tasks as columns of primitives instead of objects.
+ * <p>
+ * Each slot is a type byte, an ID, a done bit and two epoch-minute times (the
+ * deadline or event start, and the event end). Descriptions are stored back
+ * to back as UTF-8 in one byte array, addressed by per-slot offsets. A task
+ * then costs about 30 bytes plus its description, against well over 100 for a
+ * Deadlines or Events object with its LocalDateTime fields. Task objects are
+ * created only when a slot is read, and times are kept at minute resolution
+ * like in {@link BinaryTaskFormat}. The rare recurring tasks keep their
+ * {@link Recurrence} rule in a side map keyed by task ID.
+ * </p>
+ */
+class ColumnarTaskStore implements TaskStore {
+
+    private static final byte TYPE_TOMBSTONE = 0;
+    private static final byte TYPE_TODO = 1;
+    private static final byte TYPE_DEADLINE = 2;
+    private static final byte TYPE_EVENT = 3;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private final BitSet doneFlags = new BitSet();
+
+    /** Deadline due time or event start time, in epoch minutes. */
+    private long[] startMinutes = new long[INITIAL_CAPACITY];
+
+    /** Event end time in epoch minutes; unused for other types. */
+    private long[] endMinutes = new long[INITIAL_CAPACITY];
+
+    /** Description of slot i is text[textOffsets[i], textOffsets[i + 1]). */
+    private int[] textOffsets = new int[INITIAL_CAPACITY + 1];
+    private byte[] text = new byte[INITIAL_CAPACITY * 16];
+
+    /** Rules of the recurring tasks, by task ID. */
+    private final Map<Integer, Recurrence> recurrenceById = new HashMap<>();
+
+    private int count;
+
+    @Override
+    public void append(Task task) {
+        types = grow(types);
+        ids = grow(ids);
+        startMinutes = grow(startMinutes);
+        endMinutes = grow(endMinutes);
+        if (count + 2 > textOffsets.length) {
+            textOffsets = Arrays.copyOf(textOffsets, textOffsets.length * 2);
+        }
+
+        if (task instanceof Deadlines) {
+            types[count] = TYPE_DEADLINE;
+            startMinutes[count] = BinaryTaskFormat.toEpochMinute(((Deadlines) task).getBy());
+        } else if (task instanceof Events) {
+            types[count] = TYPE_EVENT;
+            startMinutes[count] = BinaryTaskFormat.toEpochMinute(((Events) task).getFrom());
+            endMinutes[count] = BinaryTaskFormat.toEpochMinute(((Events) task).getTo());
+        } else if (task instanceof ToDos) {
+            types[count] = TYPE_TODO;
+        } else {
+            throw new IllegalArgumentException("Unsupported task type: " + task.getClass().getSimpleName());
+        }
+
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        int textStart = textOffsets[count];
+        if (textStart + description.length > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textStart + description.length));
+        }
+        System.arraycopy(description, 0, text, textStart, description.length);
+
+        ids[count] = task.getId();
+        if (task.isRecurring()) {
+            recurrenceById.put(task.getId(), task.getRecurrence());
+        }
+        doneFlags.set(count, task.isDone());
+        textOffsets[count + 1] = textStart + description.length;
+        count++;
+    }
+
+    @Override
+    public Task get(int slot) {
+        String description = new String(text, textOffsets[slot], textOffsets[slot + 1] - textOffsets[slot],
+                StandardCharsets.UTF_8);
+        Recurrence recurrence = recurrenceById.get(ids[slot]);
+        Task task;
+        switch (types[slot]) {
+        case TYPE_TODO:
+            task = new ToDos(description);
+            break;
+        case TYPE_DEADLINE:
+            LocalDateTime by = BinaryTaskFormat.fromEpochMinute(startMinutes[slot]);
+            task = recurrence == null
+                    ? new Deadlines(description, by)
+                    : new RecurringDeadlines(description, by, recurrence);
+            break;
+        case TYPE_EVENT:
+            LocalDateTime from = BinaryTaskFormat.fromEpochMinute(startMinutes[slot]);
+            LocalDateTime to = BinaryTaskFormat.fromEpochMinute(endMinutes[slot]);
+            task = recurrence == null
+                    ? new Events(description, from, to)
+                    : new RecurringEvents(description, from, to, recurrence);
+            break;
+        default:
+            throw new IllegalStateException("Slot " + slot + " holds no task");
+        }
+
+        if (doneFlags.get(slot)) {
+            task.markAsDone();
+        }
+        task.assignId(ids[slot]);
+        return task;
+    }
+
+    @Override
+    public int idAt(int slot) {
+        return ids[slot];
+    }
+
+    @Override
+    public void setDone(int slot, boolean isDone) {
+        doneFlags.set(slot, isDone);
+    }
+
+    @Override
+    public void clear(int slot) {
+        types[slot] = TYPE_TOMBSTONE;
+        recurrenceById.remove(ids[slot]);
+    }
+
+    @Override
+    public boolean isLive(int slot) {
+        return types[slot] != TYPE_TOMBSTONE;
+    }
+
+    @Override
+    public int slotCount() {
+        return count;
+    }
+
+    @Override
+    public void compact() {
+        int live = 0;
+        int textEnd = 0;
+        for (int slot = 0; slot < count; slot++) {
+            if (types[slot] == TYPE_TOMBSTONE) {
+                continue;
+            }
+            int start = textOffsets[slot];
+            int length = textOffsets[slot + 1] - start;
+            System.arraycopy(text, start, text, textEnd, length);
+
+            types[live] = types[slot];
+            ids[live] = ids[slot];
+            doneFlags.set(live, doneFlags.get(slot));
+            startMinutes[live] = startMinutes[slot];
+            endMinutes[live] = endMinutes[slot];
+            textOffsets[live] = textEnd;
+            textEnd += length;
+            live++;
+        }
+        textOffsets[live] = textEnd;
+        doneFlags.clear(live, Math.max(live, count));
+        count = live;
+    }
+
+    /** Returns the column, doubled in size if it has no room for another slot. */
+    private byte[] grow(byte[] column) {
+        return count < column.length ? column : Arrays.copyOf(column, column.length * 2);
+    }
+
+    private int[] grow(int[] column) {
+        return count < column.length ? column : Arrays.copyOf(column, column.length * 2);
+    }
+
+    private long[] grow(long[] column) {
+        return count < column.length ? column : Arrays.copyOf(column, column.length * 2);
+    }
+}
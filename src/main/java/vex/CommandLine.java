@@ -0,0 +1,154 @@
+package vex;
+
+/**
+ * One line of user input, split into the command word and its arguments.
+ * <p>
+ * The line is tokenized in a single pass that only records offsets, so
+ * nothing is copied to find the command: it is matched against the known
+ * command words in place, ignoring case. The arguments are copied once, and
+ * only when a command asks for them.
+ * </p>
+ */
+final class CommandLine {
+
+    private final String input;
+    private final int commandStart;
+    private final int commandEnd;
+    private final int argsStart;
+    private final int argsEnd;
+
+    private CommandLine(String input, int commandStart, int commandEnd, int argsStart, int argsEnd) {
+        this.input = input;
+        this.commandStart = commandStart;
+        this.commandEnd = commandEnd;
+        this.argsStart = argsStart;
+        this.argsEnd = argsEnd;
+    }
+
+    /**
+     * Tokenizes a line of input. Surrounding whitespace is ignored, and the
+     * command word ends at the first whitespace after it.
+     *
+     * @param input Raw input, or null for an empty line
+     * @return The tokenized line
+     */
+    static CommandLine of(String input) {
+        String line = input == null ? "" : input;
+        int end = trimEnd(line, 0, line.length());
+        int commandStart = skipSpaces(line, 0, end);
+        int commandEnd = indexOfSpace(line, commandStart, end);
+        return new CommandLine(line, commandStart, commandEnd, skipSpaces(line, commandEnd, end), end);
+    }
+
+    /**
+     * Returns true if the line holds nothing but whitespace.
+     *
+     * @return true for an empty line
+     */
+    boolean isEmpty() {
+        return commandStart == commandEnd;
+    }
+
+    /**
+     * Returns the first character of the command word, in lower case.
+     *
+     * @return First character, or 0 for an empty line
+     */
+    char commandInitial() {
+        return isEmpty() ? 0 : Character.toLowerCase(input.charAt(commandStart));
+    }
+
+    /**
+     * Returns true if the command word is the given word, ignoring case.
+     *
+     * @param word Lower-case command word
+     * @return true if they match
+     */
+    boolean isCommand(String word) {
+        return commandEnd - commandStart == word.length()
+                && input.regionMatches(true, commandStart, word, 0, word.length());
+    }
+
+    /**
+     * Returns the arguments after the command word, trimmed.
+     *
+     * @return Arguments, or an empty string if there are none
+     */
+    String getArgs() {
+        return argsStart == argsEnd ? "" : input.substring(argsStart, argsEnd);
+    }
+
+    /**
+     * Returns true if the character separates words, as for {@link String#trim()}.
+     *
+     * @param c Character to test
+     * @return true for whitespace and control characters
+     */
+    static boolean isSpace(char c) {
+        return c <= ' ';
+    }
+
+    /**
+     * Returns the offset of the first non-whitespace character in a range of text.
+     *
+     * @param text  Text to scan
+     * @param start Start of the range (inclusive)
+     * @param end   End of the range (exclusive)
+     * @return Offset of that character, or end if the range is blank
+     */
+    static int skipSpaces(CharSequence text, int start, int end) {
+        int i = start;
+        while (i < end && isSpace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the end of a range of text with trailing whitespace left out.
+     *
+     * @param text  Text to scan
+     * @param start Start of the range (inclusive)
+     * @param end   End of the range (exclusive)
+     * @return End of the range without the whitespace, or start if the range is blank
+     */
+    static int trimEnd(CharSequence text, int start, int end) {
+        int i = end;
+        while (i > start && isSpace(text.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the start of the last word of a range of text that does not end in whitespace.
+     *
+     * @param text  Text to scan
+     * @param start Start of the range (inclusive)
+     * @param end   End of the range (exclusive)
+     * @return Offset just after the last whitespace character, or start if there is none
+     */
+    static int lastWordStart(CharSequence text, int start, int end) {
+        int i = end;
+        while (i > start && !isSpace(text.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the offset of the first whitespace character in a range of text.
+     *
+     * @param text  Text to scan
+     * @param start Start of the range (inclusive)
+     * @param end   End of the range (exclusive)
+     * @return Offset of that character, or end if there is none
+     */
+    static int indexOfSpace(CharSequence text, int start, int end) {
+        int i = start;
+        while (i < end && !isSpace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
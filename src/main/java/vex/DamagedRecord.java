@@ -0,0 +1,37 @@
+package vex;
+
+/**
+ * A record of a save file that failed verification but still names the task
+ * it held, so that the task can be restored from the backup.
+ */
+final class DamagedRecord {
+
+    private final int id;
+    private final int position;
+    private final String description;
+
+    /**
+     * Creates a damaged record.
+     *
+     * @param id          ID of the task the record claims to hold
+     * @param position    Position in the task list the task would have had among the records read
+     * @param description Description of the record, as reported in the lost records
+     */
+    DamagedRecord(int id, int position, String description) {
+        this.id = id;
+        this.position = position;
+        this.description = description;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    int getPosition() {
+        return position;
+    }
+
+    String getDescription() {
+        return description;
+    }
+}
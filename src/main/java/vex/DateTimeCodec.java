@@ -0,0 +1,222 @@
+package vex;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Reads and writes the date-time formats Vex uses: {@code yyyy-MM-dd HHmm}
+ * for input, ISO {@code yyyy-MM-ddTHH:mm} in save files, and
+ * {@code MMM d yyyy HH:mm} for display.
+ * <p>
+ * Each format has a fixed layout, so the common case is read straight from
+ * its character offsets and checked field by field, without building a
+ * parser context or copying the text. Anything unusual, such as a year
+ * outside 1 to 9999, seconds in a saved time, or an invalid date, falls back
+ * to {@link DateTimeFormatter}, so results and error messages are exactly
+ * those of the formatter.
+ * </p>
+ */
+final class DateTimeCodec {
+
+    /** Format of dates and times typed by the user, such as "2026-02-19 1400". */
+    static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+
+    private static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("MMM d yyyy HH:mm");
+    private static final DateTimeFormatter DISPLAY_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM d yyyy");
+
+    private static final int DATE_LENGTH = "yyyy-MM-dd".length();
+    private static final int INPUT_LENGTH = "yyyy-MM-dd HHmm".length();
+    private static final int ISO_LENGTH = "yyyy-MM-ddTHH:mm".length();
+    private static final int MAX_FAST_YEAR = 9999;
+
+    /** Short month names as the display formats print them in the default locale, by month value. */
+    private static final String[] MONTH_NAMES = monthNames();
+
+    private DateTimeCodec() {
+    }
+
+    private static String[] monthNames() {
+        DateTimeFormatter monthFormat = DateTimeFormatter.ofPattern("MMM");
+        String[] names = new String[13];
+        for (Month month : Month.values()) {
+            names[month.getValue()] = monthFormat.format(LocalDate.of(2000, month, 1));
+        }
+        return names;
+    }
+
+    /**
+     * Parses a date-time in {@link #INPUT_FORMAT} from a range of text.
+     *
+     * @param text  Text holding the date-time
+     * @param start Start of the date-time (inclusive)
+     * @param end   End of the date-time (exclusive)
+     * @return The date-time
+     * @throws java.time.format.DateTimeParseException If the range is not a valid date-time
+     */
+    static LocalDateTime parseInput(CharSequence text, int start, int end) {
+        if (end - start == INPUT_LENGTH && text.charAt(start + DATE_LENGTH) == ' ') {
+            LocalDateTime parsed = toDateTime(text, start,
+                    digits(text, start + 11, 2), digits(text, start + 13, 2));
+            if (parsed != null) {
+                return parsed;
+            }
+        }
+        return LocalDateTime.parse(text.subSequence(start, end), INPUT_FORMAT);
+    }
+
+    /**
+     * Parses an ISO date-time such as "2026-02-19T14:00" from a range of text.
+     *
+     * @param text  Text holding the date-time
+     * @param start Start of the date-time (inclusive)
+     * @param end   End of the date-time (exclusive)
+     * @return The date-time
+     * @throws java.time.format.DateTimeParseException If the range is not a valid ISO date-time
+     */
+    static LocalDateTime parseIso(CharSequence text, int start, int end) {
+        if (end - start == ISO_LENGTH && text.charAt(start + DATE_LENGTH) == 'T' && text.charAt(start + 13) == ':') {
+            LocalDateTime parsed = toDateTime(text, start,
+                    digits(text, start + 11, 2), digits(text, start + 14, 2));
+            if (parsed != null) {
+                return parsed;
+            }
+        }
+        return LocalDateTime.parse(text.subSequence(start, end));
+    }
+
+    /**
+     * Parses an ISO date such as "2026-02-19" from a range of text.
+     *
+     * @param text  Text holding the date
+     * @param start Start of the date (inclusive)
+     * @param end   End of the date (exclusive)
+     * @return The date
+     * @throws java.time.format.DateTimeParseException If the range is not a valid ISO date
+     */
+    static LocalDate parseIsoDate(CharSequence text, int start, int end) {
+        if (end - start == DATE_LENGTH) {
+            LocalDate parsed = toDate(text, start);
+            if (parsed != null) {
+                return parsed;
+            }
+        }
+        return LocalDate.parse(text.subSequence(start, end));
+    }
+
+    /** Returns the date and time at the given offsets, or null unless every field is in range. */
+    private static LocalDateTime toDateTime(CharSequence text, int start, int hour, int minute) {
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return null;
+        }
+        LocalDate date = toDate(text, start);
+        return date == null ? null : date.atTime(hour, minute);
+    }
+
+    /** Returns the yyyy-MM-dd date at the offset, or null unless it is well formed and valid. */
+    private static LocalDate toDate(CharSequence text, int start) {
+        if (text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-') {
+            return null;
+        }
+        int year = digits(text, start, 4);
+        int month = digits(text, start + 5, 2);
+        int day = digits(text, start + 8, 2);
+        if (year < 1 || month < 1 || month > 12 || day < 1
+                || day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    /** Returns the decimal number in the given characters, or -1 if any is not a digit. */
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Formats a date-time for display, such as "Feb 19 2026 14:00".
+     *
+     * @param dateTime Date-time to format
+     * @return Formatted text
+     */
+    static String formatDisplay(LocalDateTime dateTime) {
+        if (!isFastYear(dateTime.getYear())) {
+            return dateTime.format(DISPLAY_FORMAT);
+        }
+        StringBuilder text = new StringBuilder(17);
+        appendDisplayDate(text, dateTime.toLocalDate());
+        text.append(' ');
+        appendTwoDigits(text, dateTime.getHour());
+        text.append(':');
+        appendTwoDigits(text, dateTime.getMinute());
+        return text.toString();
+    }
+
+    /**
+     * Formats a date for display, such as "Feb 19 2026".
+     *
+     * @param date Date to format
+     * @return Formatted text
+     */
+    static String formatDisplayDate(LocalDate date) {
+        if (!isFastYear(date.getYear())) {
+            return date.format(DISPLAY_DATE_FORMAT);
+        }
+        StringBuilder text = new StringBuilder(11);
+        appendDisplayDate(text, date);
+        return text.toString();
+    }
+
+    /**
+     * Formats a date-time as ISO, as {@link LocalDateTime#toString()} does,
+     * such as "2026-02-19T14:00".
+     *
+     * @param dateTime Date-time to format
+     * @return Formatted text
+     */
+    static String formatIso(LocalDateTime dateTime) {
+        if (!isFastYear(dateTime.getYear()) || dateTime.getSecond() != 0 || dateTime.getNano() != 0) {
+            return dateTime.toString();
+        }
+        StringBuilder text = new StringBuilder(ISO_LENGTH);
+        appendFourDigits(text, dateTime.getYear());
+        text.append('-');
+        appendTwoDigits(text, dateTime.getMonthValue());
+        text.append('-');
+        appendTwoDigits(text, dateTime.getDayOfMonth());
+        text.append('T');
+        appendTwoDigits(text, dateTime.getHour());
+        text.append(':');
+        appendTwoDigits(text, dateTime.getMinute());
+        return text.toString();
+    }
+
+    private static boolean isFastYear(int year) {
+        return year >= 1 && year <= MAX_FAST_YEAR;
+    }
+
+    private static void appendDisplayDate(StringBuilder text, LocalDate date) {
+        text.append(MONTH_NAMES[date.getMonthValue()]).append(' ')
+                .append(date.getDayOfMonth()).append(' ');
+        appendFourDigits(text, date.getYear());
+    }
+
+    private static void appendFourDigits(StringBuilder text, int value) {
+        appendTwoDigits(text, value / 100);
+        appendTwoDigits(text, value % 100);
+    }
+
+    private static void appendTwoDigits(StringBuilder text, int value) {
+        text.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
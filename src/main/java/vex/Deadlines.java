@@ -2,7 +2,6 @@ package vex;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Represents a deadline task.
@@ -11,9 +10,6 @@ import java.time.format.DateTimeFormatter;
  */
 public class Deadlines extends Task {
 
-    /** Formatter used for displaying deadlines. */
-    private static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("MMM d yyyy HH:mm");
-
     /** The date and time by which the task must be completed. */
     private final LocalDateTime by;
 
@@ -43,6 +39,16 @@ public class Deadlines extends Task {
         return by;
     }
 
+    /**
+     * Returns an independent copy of this deadline with the same ID and status.
+     *
+     * @return Copy of the deadline
+     */
+    @Override
+    public Task copy() {
+        return copyStateTo(new Deadlines(getDescription(), by));
+    }
+
     /**
      * Returns a formatted string representation of the deadline task.
      *
@@ -51,7 +57,7 @@ public class Deadlines extends Task {
     @Override
     public String toString() {
         return "[D]" + super.toString()
-                + " (by: " + by.format(DISPLAY_FORMAT) + ")";
+                + " (by: " + DateTimeCodec.formatDisplay(by) + ")";
     }
 
     /**
@@ -61,10 +67,39 @@ public class Deadlines extends Task {
      */
     @Override
     public String toFileString() {
-        return String.format("D | %d | %s | %s",
-                isDone() ? 1 : 0,
-                getDescription(),
-                by);
+        return "D | " + (isDone() ? 1 : 0)
+                + " | " + getDescription()
+                + " | " + DateTimeCodec.formatIso(by);
+    }
+
+    /**
+     * Returns the time the deadline is due.
+     *
+     * @return Due date and time
+     */
+    @Override
+    public LocalDateTime getScheduledTime() {
+        return by;
+    }
+
+    /**
+     * Returns the date the deadline falls on.
+     *
+     * @return Due date
+     */
+    @Override
+    public LocalDate getStartDate() {
+        return by.toLocalDate();
+    }
+
+    /**
+     * Returns the date the deadline falls on.
+     *
+     * @return Due date
+     */
+    @Override
+    public LocalDate getEndDate() {
+        return by.toLocalDate();
     }
 
     /**
@@ -84,8 +119,8 @@ public class Deadlines extends Task {
     /**
      * Checks whether this deadline is due within the specified date range.
      *
-     * @param today The starting date
-     * @param days  The number of days from today to check
+     * @param todayDate The starting date
+     * @param days      The number of days from todayDate to check
      * @return true if the deadline is within the range
      */
     @Override
@@ -94,4 +129,15 @@ public class Deadlines extends Task {
         return (!dueDate.isBefore(todayDate)) &&
                 (!dueDate.isAfter(todayDate.plusDays(days)));
     }
+
+    /**
+     * Checks whether this deadline is not done and its due time has passed.
+     *
+     * @param now Current time
+     * @return true if the deadline was missed
+     */
+    @Override
+    public boolean isOverdue(LocalDateTime now) {
+        return !isDone() && by.isBefore(now);
+    }
 }
@@ -0,0 +1,79 @@
+package vex;
+
+import java.util.BitSet;
+
+/**
+ * Bitmaps of the IDs of done and not-done tasks.
+ * <p>
+ * Task IDs are small and dense, so a bit per ID is the cheapest way to keep
+ * both sets. The size of each set is tracked separately, which lets a query
+ * planner weigh the done condition in O(1) before reading either bitmap.
+ * </p>
+ */
+class DoneIndex {
+
+    private final BitSet doneIds = new BitSet();
+    private final BitSet openIds = new BitSet();
+    private int doneCount;
+    private int openCount;
+
+    /**
+     * Indexes a task appended to the list.
+     *
+     * @param task Task to index
+     */
+    void add(Task task) {
+        if (task.isDone()) {
+            doneIds.set(task.getId());
+            doneCount++;
+        } else {
+            openIds.set(task.getId());
+            openCount++;
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param id ID of the task to remove
+     */
+    void remove(int id) {
+        if (doneIds.get(id)) {
+            doneIds.clear(id);
+            doneCount--;
+        } else if (openIds.get(id)) {
+            openIds.clear(id);
+            openCount--;
+        }
+    }
+
+    /**
+     * Moves a task to the set matching its current status, after a mark or unmark.
+     *
+     * @param task Task to refresh
+     */
+    void update(Task task) {
+        remove(task.getId());
+        add(task);
+    }
+
+    /**
+     * Returns the number of tasks with the given status.
+     *
+     * @param isDone Status to count
+     * @return Number of tasks
+     */
+    int count(boolean isDone) {
+        return isDone ? doneCount : openCount;
+    }
+
+    /**
+     * Returns the IDs of the tasks with the given status, in ascending order.
+     *
+     * @param isDone Status to look up
+     * @return Task IDs
+     */
+    int[] find(boolean isDone) {
+        return (isDone ? doneIds : openIds).stream().toArray();
+    }
+}
@@ -2,7 +2,6 @@ package vex;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Represents an event task that occurs during a specific time range.
@@ -10,9 +9,6 @@ import java.time.format.DateTimeFormatter;
  */
 public class Events extends Task {
 
-    /** Formatter used for displaying event times. */
-    private static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("MMM d yyyy HH:mm");
-
     /** Start date and time of the event. */
     private final LocalDateTime from;
 
@@ -60,6 +56,16 @@ public class Events extends Task {
         return to;
     }
 
+    /**
+     * Returns an independent copy of this event with the same ID and status.
+     *
+     * @return Copy of the event
+     */
+    @Override
+    public Task copy() {
+        return copyStateTo(new Events(getDescription(), from, to));
+    }
+
     /**
      * Returns a formatted string representation of the event.
      *
@@ -68,8 +74,8 @@ public class Events extends Task {
     @Override
     public String toString() {
         return "[E]" + super.toString()
-                + " (from: " + from.format(DISPLAY_FORMAT)
-                + " to: " + to.format(DISPLAY_FORMAT) + ")";
+                + " (from: " + DateTimeCodec.formatDisplay(from)
+                + " to: " + DateTimeCodec.formatDisplay(to) + ")";
     }
 
     /**
@@ -79,11 +85,40 @@ public class Events extends Task {
      */
     @Override
     public String toFileString() {
-        return String.format("E | %d | %s | %s | %s",
-                isDone() ? 1 : 0,
-                getDescription(),
-                from,
-                to);
+        return "E | " + (isDone() ? 1 : 0)
+                + " | " + getDescription()
+                + " | " + DateTimeCodec.formatIso(from)
+                + " | " + DateTimeCodec.formatIso(to);
+    }
+
+    /**
+     * Returns the time the event starts.
+     *
+     * @return Start date and time
+     */
+    @Override
+    public LocalDateTime getScheduledTime() {
+        return from;
+    }
+
+    /**
+     * Returns the date the event starts on.
+     *
+     * @return Start date
+     */
+    @Override
+    public LocalDate getStartDate() {
+        return from.toLocalDate();
+    }
+
+    /**
+     * Returns the date the event ends on.
+     *
+     * @return End date
+     */
+    @Override
+    public LocalDate getEndDate() {
+        return to.toLocalDate();
     }
 
     /**
@@ -106,9 +141,27 @@ public class Events extends Task {
         return !date.isBefore(start) && !date.isAfter(end);
     }
 
+    /**
+     * Checks whether this event starts within the specified date range.
+     *
+     * @param todayDate The starting date
+     * @param days      The number of days from todayDate to check
+     * @return true if the event starts within the range
+     */
     @Override
     public boolean isDueWithin(LocalDate todayDate, int days) {
         LocalDate startDate = from.toLocalDate();
         return (!startDate.isBefore(todayDate)) && (!startDate.isAfter(todayDate.plusDays(days)));
     }
+
+    /**
+     * Checks whether this event is not done and has already ended.
+     *
+     * @param now Current time
+     * @return true if the event ended without being marked done
+     */
+    @Override
+    public boolean isOverdue(LocalDateTime now) {
+        return !isDone() && to.isBefore(now);
+    }
 }
@@ -0,0 +1,131 @@
+package vex;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from positive int keys to int values.
+ * Avoids the boxed keys, values and entry objects of a {@code HashMap<Integer, Integer>},
+ * which would otherwise cost more memory per task than a columnar task itself.
+ */
+class IntIntMap {
+
+    /** Marks an unused bucket; keys must be positive. */
+    private static final int EMPTY = 0;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private int[] values = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Returns the value for a key.
+     *
+     * @param key          Positive key
+     * @param defaultValue Value returned when the key is absent
+     * @return The mapped value, or defaultValue
+     */
+    int get(int key, int defaultValue) {
+        int mask = keys.length - 1;
+        for (int i = bucketOf(key, mask); keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Returns true if the key is present.
+     *
+     * @param key Positive key
+     * @return true if mapped
+     */
+    boolean containsKey(int key) {
+        int mask = keys.length - 1;
+        for (int i = bucketOf(key, mask); keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Maps a key to a value, replacing any earlier value.
+     *
+     * @param key   Positive key
+     * @param value Value to store
+     */
+    void put(int key, int value) {
+        assert key != EMPTY : "keys must be positive";
+        if ((size + 1) * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int i = bucketOf(key, mask);
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == EMPTY) {
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+    }
+
+    /**
+     * Removes a key if present.
+     *
+     * @param key Positive key
+     */
+    void remove(int key) {
+        int mask = keys.length - 1;
+        int i = bucketOf(key, mask);
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = EMPTY;
+        size--;
+
+        // Shift later entries of the probe run back so that lookups do not stop at the hole.
+        for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = bucketOf(keys[j], mask);
+            boolean isHoleOnPath = i <= j ? (home <= i || home > j) : (home <= i && home > j);
+            if (isHoleOnPath) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                keys[j] = EMPTY;
+                i = j;
+            }
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int bucketOf(int key, int mask) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,201 @@
+package vex;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Interval tree over the dates that deadlines and events occupy.
+ * <p>
+ * Implemented as a treap ordered by start date (ties broken by insertion
+ * ordinal), where each node also records the latest end date in its subtree.
+ * A lookup only descends into subtrees that can still overlap the query, so
+ * finding the k tasks on a date or in a date range costs O(log n + k) on
+ * average instead of a scan over every task. Tasks are tracked by ID; those
+ * without dates are not stored, and neither are recurring tasks, whose span
+ * may cover years with few days occupied; {@link TaskList} checks those itself.
+ * </p>
+ */
+class IntervalIndex {
+
+    private final Map<Integer, Node> nodes = new HashMap<>();
+    private final Random random = new Random();
+    private Node root;
+    private long nextOrdinal;
+
+    /**
+     * Indexes a task appended to the end of the list.
+     *
+     * @param task Task to index; ignored if it has no dates or recurs
+     */
+    void add(Task task) {
+        long ordinal = nextOrdinal++;
+        LocalDate start = task.getStartDate();
+        LocalDate end = task.getEndDate();
+        if (start == null || end == null || task.isRecurring()) {
+            return;
+        }
+
+        Node node = new Node(task.getId(), start.toEpochDay(), end.toEpochDay(), ordinal, random.nextInt());
+        nodes.put(task.getId(), node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param id ID of the task to remove
+     */
+    void remove(int id) {
+        Node node = nodes.remove(id);
+        if (node != null) {
+            root = delete(root, node);
+        }
+    }
+
+    /**
+     * Returns the IDs of the tasks that occupy at least one day in the inclusive range, in list order.
+     *
+     * @param from First day of the range
+     * @param to   Last day of the range
+     * @return IDs of overlapping tasks
+     */
+    int[] findOverlapping(LocalDate from, LocalDate to) {
+        List<Node> found = new ArrayList<>();
+        collect(root, from.toEpochDay(), to.toEpochDay(), found);
+        found.sort(Comparator.comparingLong(node -> node.ordinal));
+
+        int[] ids = new int[found.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = found.get(i).id;
+        }
+        return ids;
+    }
+
+    private static void collect(Node node, long from, long to, List<Node> found) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+        collect(node.left, from, to, found);
+        if (node.start <= to) {
+            if (node.end >= from) {
+                found.add(node);
+            }
+            collect(node.right, from, to, found);
+        }
+    }
+
+    private Node insert(Node subtree, Node node) {
+        if (subtree == null) {
+            return node;
+        }
+        if (node.compareTo(subtree) < 0) {
+            subtree.left = insert(subtree.left, node);
+            if (subtree.left.priority > subtree.priority) {
+                subtree = rotateRight(subtree);
+            }
+        } else {
+            subtree.right = insert(subtree.right, node);
+            if (subtree.right.priority > subtree.priority) {
+                subtree = rotateLeft(subtree);
+            }
+        }
+        subtree.refresh();
+        return subtree;
+    }
+
+    private Node delete(Node subtree, Node node) {
+        if (subtree == null) {
+            return null;
+        }
+        if (subtree == node) {
+            return merge(node.left, node.right);
+        }
+        if (node.compareTo(subtree) < 0) {
+            subtree.left = delete(subtree.left, node);
+        } else {
+            subtree.right = delete(subtree.right, node);
+        }
+        subtree.refresh();
+        return subtree;
+    }
+
+    /** Joins two treaps where every key in left is smaller than every key in right. */
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.refresh();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.refresh();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.refresh();
+        pivot.refresh();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.refresh();
+        pivot.refresh();
+        return pivot;
+    }
+
+    /**
+     * A task's day range, stored as epoch days.
+     */
+    private static final class Node implements Comparable<Node> {
+        private final int id;
+        private final long start;
+        private final long end;
+        private final long ordinal;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(int id, long start, long end, long ordinal, int priority) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.ordinal = ordinal;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        void refresh() {
+            maxEnd = end;
+            if (left != null && left.maxEnd > maxEnd) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd > maxEnd) {
+                maxEnd = right.maxEnd;
+            }
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int byStart = Long.compare(start, other.start);
+            return byStart != 0 ? byStart : Long.compare(ordinal, other.ordinal);
+        }
+    }
+}
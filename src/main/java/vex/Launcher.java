@@ -11,17 +11,23 @@ import javafx.application.Application;
  * </p>
  * <p>
  * It delegates control to the {@link Main} class, which extends
- * {@link javafx.application.Application} and initializes the GUI.
+ * {@link javafx.application.Application} and initializes the GUI, unless the
+ * command line asks for a console mode such as {@code --batch}, which
+ * {@link Vex#main(String[])} runs without starting JavaFX.
  * </p>
  */
 public class Launcher {
 
     /**
-     * Launches the JavaFX application.
+     * Launches the JavaFX application, or runs Vex in the console if the arguments ask for it.
      *
      * @param args Command-line arguments passed to the application
      */
     public static void main(String[] args) {
+        if (Vex.isConsoleRun(args)) {
+            Vex.main(args);
+            return;
+        }
         Application.launch(Main.class, args);
     }
 }
@@ -76,11 +76,20 @@ public class MainWindow {
 
     public void setVex(Vex v) {
         vex = v;
-        String greeting = vex.getGreeting();
+        showVexMessage(vex.getGreeting());
+        vex.startReminders(reminder -> Platform.runLater(() -> showVexMessage(reminder)));
+    }
+
+    /**
+     * Adds a message from Vex that is not a reply to user input, such as the greeting or a reminder.
+     *
+     * @param message Text to type out
+     */
+    private void showVexMessage(String message) {
         DialogBox vexBox = DialogBox.getVexDialog("", vexImage);
 
         addDialogsWithScroll(List.of(vexBox), List.of(false));
-        typeText(vexBox.getDialogLabel(), greeting);
+        typeText(vexBox.getDialogLabel(), message);
     }
 
     @FXML
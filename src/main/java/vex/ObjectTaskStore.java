@@ -0,0 +1,73 @@
+package vex;
+
+import java.util.ArrayList;
+
+/**
+ * Keeps each task as the Task object it was added as.
+ * <p>
+ * In copy-on-write mode a status change replaces the task with an updated
+ * copy instead of changing it, so Task objects handed out earlier (for
+ * example in a published snapshot) never change afterwards.
+ * </p>
+ */
+class ObjectTaskStore implements TaskStore {
+
+    /** Tasks in append order; null marks a tombstone. */
+    private final ArrayList<Task> slots = new ArrayList<>();
+    private final boolean isCopyOnWrite;
+
+    /**
+     * Creates an empty store.
+     *
+     * @param isCopyOnWrite true to replace tasks with updated copies instead of changing them
+     */
+    ObjectTaskStore(boolean isCopyOnWrite) {
+        this.isCopyOnWrite = isCopyOnWrite;
+    }
+
+    @Override
+    public void append(Task task) {
+        slots.add(task);
+    }
+
+    @Override
+    public Task get(int slot) {
+        return slots.get(slot);
+    }
+
+    @Override
+    public int idAt(int slot) {
+        return slots.get(slot).getId();
+    }
+
+    @Override
+    public void setDone(int slot, boolean isDone) {
+        Task task = isCopyOnWrite ? slots.get(slot).copy() : slots.get(slot);
+        if (isDone) {
+            task.markAsDone();
+        } else {
+            task.markAsUndone();
+        }
+        slots.set(slot, task);
+    }
+
+    @Override
+    public void clear(int slot) {
+        slots.set(slot, null);
+    }
+
+    @Override
+    public boolean isLive(int slot) {
+        return slots.get(slot) != null;
+    }
+
+    @Override
+    public int slotCount() {
+        return slots.size();
+    }
+
+    @Override
+    public void compact() {
+        slots.removeIf(task -> task == null);
+    }
+}
@@ -0,0 +1,158 @@
+package vex;
+
+/**
+ * Which part of a long result to show, taken from the {@code /page} and
+ * {@code /size} options at the end of a command.
+ * <p>
+ * Results that fit on one page look the same as before paging existed. Longer
+ * ones are cut into pages of {@link #DEFAULT_SIZE} tasks unless a size is given.
+ * {@code /page all} streams every page in turn instead of a single one.
+ * </p>
+ */
+final class PageRequest {
+
+    /** Number of tasks per page when no size is given. */
+    static final int DEFAULT_SIZE = 100;
+
+    private static final String PAGE_OPTION = "page";
+    private static final String SIZE_OPTION = "size";
+    private static final String OPTION_PREFIX = "/";
+    private static final String ALL_PAGES = "all";
+
+    private static final String ERROR_BAD_PAGE = "Pages are counted from 1. Use /page N or /page all.";
+    private static final String ERROR_BAD_SIZE = "A page holds at least 1 objective. Use /size M.";
+    private static final String ERROR_REPEATED = "Give each of /page and /size at most once.";
+
+    private final String args;
+    private final int page;
+    private final int size;
+
+    private PageRequest(String args, int page, int size) {
+        this.args = args;
+        this.page = page;
+        this.size = size;
+    }
+
+    /**
+     * Splits the paging options off the end of a command's arguments.
+     *
+     * @param args Arguments after the command word, possibly ending in /page N and /size M
+     * @return The requested page, and the arguments without the options
+     * @throws IllegalArgumentException If an option value is invalid or an option is repeated
+     */
+    static PageRequest parse(String args) {
+        String remaining = args == null ? "" : args.trim();
+        if (!remaining.contains(OPTION_PREFIX + PAGE_OPTION) && !remaining.contains(OPTION_PREFIX + SIZE_OPTION)) {
+            return new PageRequest(remaining, 1, DEFAULT_SIZE);
+        }
+        String pageValue = null;
+        String sizeValue = null;
+
+        // Options are taken off the end as long as the last two words are an option and its value.
+        int end = remaining.length();
+        while (end > 0) {
+            int valueStart = CommandLine.lastWordStart(remaining, 0, end);
+            if (valueStart == 0) {
+                break;
+            }
+            int nameEnd = CommandLine.trimEnd(remaining, 0, valueStart);
+            int nameStart = CommandLine.lastWordStart(remaining, 0, nameEnd);
+            if (isOption(remaining, nameStart, nameEnd, PAGE_OPTION)) {
+                if (pageValue != null) {
+                    throw new IllegalArgumentException(ERROR_REPEATED);
+                }
+                pageValue = remaining.substring(valueStart, end);
+            } else if (isOption(remaining, nameStart, nameEnd, SIZE_OPTION)) {
+                if (sizeValue != null) {
+                    throw new IllegalArgumentException(ERROR_REPEATED);
+                }
+                sizeValue = remaining.substring(valueStart, end);
+            } else {
+                break;
+            }
+            end = CommandLine.trimEnd(remaining, 0, nameStart);
+        }
+
+        int page = pageValue == null ? 1 : parsePage(pageValue);
+        int size = sizeValue == null ? DEFAULT_SIZE : parsePositive(sizeValue, ERROR_BAD_SIZE);
+        return new PageRequest(remaining.substring(0, end), page, size);
+    }
+
+    /** Returns true if the word in [start, end) is the given option with its prefix, such as "/page". */
+    private static boolean isOption(String text, int start, int end, String option) {
+        return end - start == OPTION_PREFIX.length() + option.length()
+                && text.startsWith(OPTION_PREFIX, start)
+                && text.startsWith(option, start + OPTION_PREFIX.length());
+    }
+
+    private static int parsePage(String value) {
+        return ALL_PAGES.equalsIgnoreCase(value) ? 0 : parsePositive(value, ERROR_BAD_PAGE);
+    }
+
+    private static int parsePositive(String value, String error) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below, like a number out of range.
+        }
+        throw new IllegalArgumentException(error);
+    }
+
+    /**
+     * Returns the command's arguments with the paging options removed.
+     *
+     * @return Remaining arguments, trimmed
+     */
+    String getArgs() {
+        return args;
+    }
+
+    /**
+     * Returns true if every page should be shown, one after another.
+     *
+     * @return true for /page all
+     */
+    boolean isAllPages() {
+        return page == 0;
+    }
+
+    /**
+     * Returns the requested page.
+     *
+     * @return 1-based page number; meaningless if {@link #isAllPages()}
+     */
+    int getPage() {
+        return page;
+    }
+
+    /**
+     * Returns the number of tasks per page.
+     *
+     * @return Page size
+     */
+    int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of pages needed for a result.
+     *
+     * @param total Number of tasks in the result
+     * @return Page count, at least 1
+     */
+    int pageCount(int total) {
+        return Math.max(1, (int) ((total + (long) size - 1) / size));
+    }
+
+    /**
+     * Returns the position of the first task on the requested page.
+     *
+     * @return 0-based offset
+     */
+    int getOffset() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) (page - 1) * size);
+    }
+}
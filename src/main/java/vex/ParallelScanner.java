@@ -0,0 +1,181 @@
+package vex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * Filters task lists, splitting large ones across a {@link ForkJoinPool}.
+ * <p>
+ * Lists shorter than the threshold are filtered on the calling thread, where
+ * the cost of forking would outweigh the gain. Longer lists are split into
+ * ranges that are filtered in parallel and joined left to right, so the
+ * result is always in the same order as the source.
+ * </p>
+ */
+class ParallelScanner {
+
+    /** Default number of tasks from which a scan runs in parallel. */
+    static final int DEFAULT_THRESHOLD = 50_000;
+
+    /** Ranges are not split below this size. */
+    private static final int MIN_LEAF_SIZE = 4_096;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Creates a scanner that runs on the common pool.
+     *
+     * @param threshold Minimum list size for a parallel scan
+     * @throws IllegalArgumentException If threshold is not positive
+     */
+    ParallelScanner(int threshold) {
+        this(ForkJoinPool.commonPool(), threshold);
+    }
+
+    /**
+     * Creates a scanner that runs on the given pool.
+     *
+     * @param pool      Pool that runs parallel scans
+     * @param threshold Minimum list size for a parallel scan
+     * @throws IllegalArgumentException If threshold is not positive
+     */
+    ParallelScanner(ForkJoinPool pool, int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("parallel threshold must be positive");
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns the tasks that satisfy the predicate, in source order.
+     *
+     * @param source    Tasks to scan
+     * @param predicate Condition to keep a task; must be safe to call from several threads
+     * @return Matching tasks
+     */
+    List<Task> filter(List<Task> source, Predicate<Task> predicate) {
+        if (source.size() < threshold) {
+            List<Task> matches = new ArrayList<>();
+            for (Task task : source) {
+                if (predicate.test(task)) {
+                    matches.add(task);
+                }
+            }
+            return matches;
+        }
+
+        // The source lists have O(log n) positional access, so take one O(n) pass into an array first.
+        Task[] tasks = source.toArray(new Task[0]);
+        int leafSize = Math.max(MIN_LEAF_SIZE, tasks.length / (pool.getParallelism() * 4));
+        return pool.invoke(new FilterRange(tasks, 0, tasks.length, leafSize, predicate));
+    }
+
+    /**
+     * Returns how many tasks satisfy the predicate, without collecting them.
+     *
+     * @param source    Tasks to scan
+     * @param predicate Condition to count a task; must be safe to call from several threads
+     * @return Number of matching tasks
+     */
+    int count(List<Task> source, Predicate<Task> predicate) {
+        if (source.size() < threshold) {
+            int count = 0;
+            for (Task task : source) {
+                if (predicate.test(task)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        Task[] tasks = source.toArray(new Task[0]);
+        int leafSize = Math.max(MIN_LEAF_SIZE, tasks.length / (pool.getParallelism() * 4));
+        return pool.invoke(new CountRange(tasks, 0, tasks.length, leafSize, predicate));
+    }
+
+    /**
+     * Filters tasks[from, to), splitting in halves down to the leaf size.
+     */
+    private static final class FilterRange extends RecursiveTask<List<Task>> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Task[] tasks;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final transient Predicate<Task> predicate;
+
+        FilterRange(Task[] tasks, int from, int to, int leafSize, Predicate<Task> predicate) {
+            this.tasks = tasks;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.predicate = predicate;
+        }
+
+        @Override
+        protected List<Task> compute() {
+            if (to - from <= leafSize) {
+                List<Task> matches = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    if (predicate.test(tasks[i])) {
+                        matches.add(tasks[i]);
+                    }
+                }
+                return matches;
+            }
+
+            int middle = (from + to) >>> 1;
+            FilterRange right = new FilterRange(tasks, middle, to, leafSize, predicate);
+            right.fork();
+            List<Task> matches = new FilterRange(tasks, from, middle, leafSize, predicate).compute();
+            matches.addAll(right.join());
+            return matches;
+        }
+    }
+
+    /**
+     * Counts the matches in tasks[from, to), splitting in halves down to the leaf size.
+     */
+    private static final class CountRange extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Task[] tasks;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final transient Predicate<Task> predicate;
+
+        CountRange(Task[] tasks, int from, int to, int leafSize, Predicate<Task> predicate) {
+            this.tasks = tasks;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.predicate = predicate;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= leafSize) {
+                int count = 0;
+                for (int i = from; i < to; i++) {
+                    if (predicate.test(tasks[i])) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+
+            int middle = (from + to) >>> 1;
+            CountRange right = new CountRange(tasks, middle, to, leafSize, predicate);
+            right.fork();
+            int count = new CountRange(tasks, from, middle, leafSize, predicate).compute();
+            return count + right.join();
+        }
+    }
+}
@@ -4,18 +4,25 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Parses user input into commands and delegates execution to TaskList, Ui, and Storage.
  *
  * This class acts as the command-processing layer between user input and application logic.
+ * The command word is matched in place by {@link CommandLine} against a table of commands,
+ * and task fields are read from offsets into the arguments rather than from split copies.
  */
 public class Parser {
 
     /**
      * Expected format for date-time input: yyyy-MM-dd HHmm.
      */
-    public static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    public static final DateTimeFormatter INPUT_FORMAT = DateTimeCodec.INPUT_FORMAT;
 
     private static final String COMMAND_LIST = "list";
     private static final String COMMAND_SHOW = "show";
@@ -27,27 +34,102 @@ public class Parser {
     private static final String COMMAND_EVENT = "event";
     private static final String COMMAND_FIND = "find";
     private static final String COMMAND_REMIND = "remind";
+    private static final String COMMAND_QUERY = "query";
+    private static final String COMMAND_STATS = "stats";
+    private static final String COMMAND_UNDO = "undo";
+    private static final String COMMAND_REDO = "redo";
+
+    /** Marks a task reference as a stable task ID rather than a list position. */
+    private static final String TASK_ID_PREFIX = "#";
+    /** Separates the task references of a bulk command, as in "3,7,10-40". */
+    private static final char REFERENCE_SEPARATOR = ',';
+    private static final char RANGE_SEPARATOR = '-';
 
     private static final String DEADLINE_DELIMITER = " /by ";
     private static final String EVENT_FROM_DELIMITER = " /from ";
     private static final String EVENT_TO_DELIMITER = " /to ";
+    private static final String REPEAT_DELIMITER = " /every ";
+    private static final String REPEAT_UNTIL_DELIMITER = " /until ";
+
+    private static final String QUERY_OPTION_PREFIX = "/";
+    private static final String QUERY_TYPE = "type";
+    private static final String QUERY_DONE = "done";
+    private static final String QUERY_TEXT = "text";
+    private static final String QUERY_AFTER = "after";
+    private static final String QUERY_BEFORE = "before";
+    private static final String QUERY_OVERDUE = "overdue";
 
     private static final int DEFAULT_REMIND_DAYS = 7;
 
     private static final String ERROR_UNKNOWN_COMMAND =
             "The Ancient does not understand your orders. Try again, commander. "
-            + "(Valid: list, show, mark, unmark, delete, todo, deadline, event, find, remind, bye)";
+            + "(Valid: list, show, mark, unmark, delete, todo, deadline, event, find, remind, query, stats, "
+            + "undo, redo, bye)";
     private static final String ERROR_EMPTY_INPUT = "The battlefield awaits your command...";
     private static final String ERROR_TASK_NUMBER_INVALID = "That target does not exist in this lane.";
     private static final String ERROR_SHOW_NO_DATE = "State the date of battle. Use yyyy-MM-dd.";
     private static final String ERROR_SHOW_BAD_DATE = "Invalid date. The Ancient demands yyyy-MM-dd.";
-    private static final String ERROR_NO_TASK_NUMBER = "Specify which objective. Give a task number.";
+    private static final String ERROR_SHOW_TOO_MANY = "Give one date, or a start and end date.";
+    private static final String ERROR_SHOW_BAD_RANGE = "The start date must not come after the end date.";
+    private static final String ERROR_NO_TASK_NUMBER = "Specify which objective. Give a task number or #ID.";
+    private static final String ERROR_BAD_RANGE = "A range runs from a lower to a higher number, e.g. 10-40.";
+    private static final String ERROR_NOTHING_TO_UNDO = "There is nothing left to undo.";
+    private static final String ERROR_NOTHING_TO_REDO = "There is nothing left to redo.";
+    private static final String ERROR_REPEAT_USAGE = "Say how often it repeats: /every day, week or month, "
+            + "or /every N days, weeks or months, then optionally /until yyyy-MM-dd.";
+    private static final String ERROR_REPEAT_BAD_UNTIL = "State when the repeating ends as /until yyyy-MM-dd.";
     private static final String ERROR_FIND_NO_KEYWORD = "What intel do you seek? Provide a keyword.";
     private static final String ERROR_REMIND_TOO_MANY = "One number only. Use: remind <days> (e.g., remind 3)";
     private static final String ERROR_REMIND_BAD_DAYS = "The timeline is unclear. Use: remind <days> (e.g., remind 3)";
     private static final String ERROR_REMIND_NEGATIVE = "Time does not flow backward. Days must be zero or more.";
+    private static final String ERROR_QUERY_USAGE = "Unclear orders. Use: query [/type todo|deadline|event] "
+            + "[/done yes|no] [/text KEYWORD] [/after yyyy-MM-dd] [/before yyyy-MM-dd] [/overdue]";
+    private static final String ERROR_QUERY_NO_FILTER = "Give at least one filter, such as /type or /text.";
+    private static final String ERROR_QUERY_REPEATED = "Give each query filter at most once.";
+    private static final String ERROR_QUERY_BAD_TYPE = "Unknown objective type. Use todo, deadline or event.";
+    private static final String ERROR_QUERY_BAD_DONE = "Use /done yes or /done no.";
     private static final String ERROR_SAVE_FAILED = "The campaign archives could not be written. Your changes were not saved.";
 
+    /**
+     * Runs one command with the arguments that followed its word.
+     */
+    private interface Handler {
+        void handle(String args, TaskList tasks, Ui ui, Storage storage);
+    }
+
+    /**
+     * The commands Vex understands, each with the handler that runs it.
+     */
+    private enum Command {
+        LIST(COMMAND_LIST, (args, tasks, ui, storage) -> handleList(args, tasks, ui)),
+        SHOW(COMMAND_SHOW, (args, tasks, ui, storage) -> handleShow(args, tasks, ui)),
+        MARK(COMMAND_MARK, (args, tasks, ui, storage) -> handleMarkStatus(COMMAND_MARK, args, tasks, ui, storage)),
+        UNMARK(COMMAND_UNMARK, (args, tasks, ui, storage) ->
+                handleMarkStatus(COMMAND_UNMARK, args, tasks, ui, storage)),
+        DELETE(COMMAND_DELETE, Parser::handleDelete),
+        TODO(COMMAND_TODO, (args, tasks, ui, storage) -> handleAddTask(COMMAND_TODO, args, tasks, ui, storage)),
+        DEADLINE(COMMAND_DEADLINE, (args, tasks, ui, storage) ->
+                handleAddTask(COMMAND_DEADLINE, args, tasks, ui, storage)),
+        EVENT(COMMAND_EVENT, (args, tasks, ui, storage) -> handleAddTask(COMMAND_EVENT, args, tasks, ui, storage)),
+        FIND(COMMAND_FIND, (args, tasks, ui, storage) -> handleFind(args, tasks, ui)),
+        REMIND(COMMAND_REMIND, (args, tasks, ui, storage) -> handleRemind(args, tasks, ui)),
+        QUERY(COMMAND_QUERY, (args, tasks, ui, storage) -> handleQuery(args, tasks, ui)),
+        STATS(COMMAND_STATS, (args, tasks, ui, storage) -> ui.showStats(tasks.getStats(LocalDateTime.now()))),
+        UNDO(COMMAND_UNDO, (args, tasks, ui, storage) -> handleUndoRedo(COMMAND_UNDO, tasks, ui, storage)),
+        REDO(COMMAND_REDO, (args, tasks, ui, storage) -> handleUndoRedo(COMMAND_REDO, tasks, ui, storage));
+
+        private final String word;
+        private final Handler handler;
+
+        Command(String word, Handler handler) {
+            this.word = word;
+            this.handler = handler;
+        }
+    }
+
+    /** Commands by the first letter of their word, so that input is matched without being copied. */
+    private static final Command[][] COMMANDS_BY_INITIAL = indexCommands();
+
     /**
      * Processes user input and executes the corresponding command.
      *
@@ -61,56 +143,48 @@ public class Parser {
             throw new IllegalArgumentException("tasks/ui/storage must not be null");
         }
 
-        String trimmed = normalizeInput(input);
-        if (trimmed.isEmpty()) {
+        if (storage.takeWriteFailure()) {
+            ui.showError(ERROR_SAVE_FAILED);
+        }
+
+        CommandLine line = CommandLine.of(input);
+        if (line.isEmpty()) {
             ui.showError(ERROR_EMPTY_INPUT);
             return;
         }
 
-        String[] parts = trimmed.split("\\s+", 2);
-        String command = parts[0].toLowerCase();
-        String args = parts.length == 2 ? parts[1] : "";
-
-        switch (command) {
-        case COMMAND_LIST:
-            ui.showTaskList(tasks);
-            break;
-
-        case COMMAND_SHOW:
-            handleShow(args, tasks, ui);
-            break;
-
-        case COMMAND_MARK:
-        case COMMAND_UNMARK:
-            handleMarkStatus(command, args, tasks, ui, storage);
-            break;
-
-        case COMMAND_DELETE:
-            handleDelete(args, tasks, ui, storage);
-            break;
-
-        case COMMAND_TODO:
-        case COMMAND_DEADLINE:
-        case COMMAND_EVENT:
-            handleAddTask(command, args, tasks, ui, storage);
-            break;
-
-        case COMMAND_FIND:
-            handleFind(args, tasks, ui);
-            break;
-
-        case COMMAND_REMIND:
-            handleRemind(args, tasks, ui);
-            break;
-
-        default:
+        Command command = findCommand(line);
+        if (command == null) {
             ui.showError(ERROR_UNKNOWN_COMMAND);
-            break;
+            return;
         }
+        command.handler.handle(line.getArgs(), tasks, ui, storage);
     }
 
-    private static String normalizeInput(String input) {
-        return trimToEmpty(input);
+    /** Returns the command the line starts with, or null if the word is not a command. */
+    private static Command findCommand(CommandLine line) {
+        char initial = line.commandInitial();
+        if (initial < 'a' || initial > 'z') {
+            return null;
+        }
+        for (Command command : COMMANDS_BY_INITIAL[initial - 'a']) {
+            if (line.isCommand(command.word)) {
+                return command;
+            }
+        }
+        return null;
+    }
+
+    /** Groups the commands by the first letter of their word, so a lookup compares against a few at most. */
+    private static Command[][] indexCommands() {
+        Command[][] byInitial = new Command[26][];
+        for (char initial = 'a'; initial <= 'z'; initial++) {
+            final char letter = initial;
+            byInitial[initial - 'a'] = Arrays.stream(Command.values())
+                    .filter(command -> command.word.charAt(0) == letter)
+                    .toArray(Command[]::new);
+        }
+        return byInitial;
     }
 
     /** Returns empty string if s is null, otherwise s trimmed. */
@@ -119,21 +193,77 @@ public class Parser {
     }
 
     /**
-     * Handles the 'show' command to display tasks on a specific date.
+     * Splits the /page and /size options off a command's arguments, showing
+     * an error and returning null if they are invalid.
+     */
+    private static PageRequest parsePageOrShowError(String args, Ui ui) {
+        try {
+            return PageRequest.parse(args);
+        } catch (IllegalArgumentException e) {
+            ui.showError(e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Handles the 'list' command. Long lists are shown a page at a time.
      *
-     * @param args  Raw argument string (expected date)
+     * Formats:
+     * - list
+     * - list /page <N> /size <M>
+     * - list /page all
+     *
+     * @param args  Rest of input after "list"
+     * @param tasks TaskList to show
+     * @param ui    Ui for output
+     */
+    private static void handleList(String args, TaskList tasks, Ui ui) {
+        PageRequest page = parsePageOrShowError(args, ui);
+        if (page != null) {
+            ui.showTaskList(tasks, page);
+        }
+    }
+
+    /**
+     * Handles the 'show' command to display tasks on a specific date, or on
+     * any day of a date range when two dates are given.
+     *
+     * @param args  Raw argument string (expected date, optionally followed by an end date and paging options)
      * @param tasks TaskList to query
      * @param ui    Ui for output
      */
     private static void handleShow(String args, TaskList tasks, Ui ui) {
-        if (trimToEmpty(args).isEmpty()) {
+        PageRequest page = parsePageOrShowError(args, ui);
+        if (page == null) {
+            return;
+        }
+        String trimmed = page.getArgs();
+        if (trimmed.isEmpty()) {
             ui.showError(ERROR_SHOW_NO_DATE);
             return;
         }
 
+        int firstEnd = CommandLine.indexOfSpace(trimmed, 0, trimmed.length());
+        int secondStart = CommandLine.skipSpaces(trimmed, firstEnd, trimmed.length());
+        int secondEnd = CommandLine.indexOfSpace(trimmed, secondStart, trimmed.length());
+        if (secondEnd < trimmed.length()) {
+            ui.showError(ERROR_SHOW_TOO_MANY);
+            return;
+        }
+
         try {
-            LocalDate queryDate = LocalDate.parse(trimToEmpty(args));
-            ui.showTasksOnDate(tasks, queryDate);
+            LocalDate from = DateTimeCodec.parseIsoDate(trimmed, 0, firstEnd);
+            if (secondStart == secondEnd) {
+                ui.showTasksOnDate(tasks.getTasksOn(from), from, page);
+                return;
+            }
+
+            LocalDate to = DateTimeCodec.parseIsoDate(trimmed, secondStart, secondEnd);
+            if (from.isAfter(to)) {
+                ui.showError(ERROR_SHOW_BAD_RANGE);
+                return;
+            }
+            ui.showTasksInRange(tasks.getTasksBetween(from, to), from, to, page);
         } catch (DateTimeParseException e) {
             ui.showError(ERROR_SHOW_BAD_DATE);
         }
@@ -142,26 +272,38 @@ public class Parser {
     /**
      * Handles 'mark' and 'unmark' commands to update task completion status.
      *
+     * Several tasks can be given at once, such as "1-500" or "3,7,10-40"; they
+     * are then changed together and saved once.
+     *
      * @param command Either "mark" or "unmark"
-     * @param args    Raw argument string (expected task number)
+     * @param args    Raw argument string (expected task numbers)
      * @param tasks   TaskList to modify
      * @param ui      Ui for output
      * @param storage Storage to persist changes
      */
     private static void handleMarkStatus(String command, String args, TaskList tasks, Ui ui, Storage storage) {
         try {
-            int index = parseTaskIndexOrThrow(args, tasks);
-            Task task = tasks.get(index);
+            int[] indices = parseTaskIndicesOrThrow(args, tasks);
+            if (indices.length > 1) {
+                if (COMMAND_MARK.equals(command)) {
+                    ui.showMarkedTasks(tasks.markAllAsDone(indices));
+                } else {
+                    ui.showUnmarkedTasks(tasks.markAllAsUndone(indices));
+                }
+                if (!storage.saveBatch(tasks.getTasks())) {
+                    ui.showError(ERROR_SAVE_FAILED);
+                }
+                return;
+            }
 
+            int index = indices[0];
             if (COMMAND_MARK.equals(command)) {
-                task.markAsDone();
-                ui.showMarkedTask(task);
+                ui.showMarkedTask(tasks.markAsDone(index));
             } else {
-                task.markAsUndone();
-                ui.showUnmarkedTask(task);
+                ui.showUnmarkedTask(tasks.markAsUndone(index));
             }
 
-            if (!storage.save(tasks.getTasks())) {
+            if (!storage.saveStatusChange(tasks.getTasks(), index)) {
                 ui.showError(ERROR_SAVE_FAILED);
             }
         } catch (IllegalArgumentException e) {
@@ -170,19 +312,30 @@ public class Parser {
     }
 
     /**
-     * Handles the 'delete' command to remove a task.
+     * Handles the 'delete' command to remove a task, or several tasks given as
+     * ranges and lists such as "3,7,10-40", which are removed together and saved once.
      *
-     * @param args    Raw argument string (expected task number)
+     * @param args    Raw argument string (expected task numbers)
      * @param tasks   TaskList to modify
      * @param ui      Ui for output
      * @param storage Storage to persist changes
      */
     private static void handleDelete(String args, TaskList tasks, Ui ui, Storage storage) {
         try {
-            int index = parseTaskIndexOrThrow(args, tasks);
+            int[] indices = parseTaskIndicesOrThrow(args, tasks);
+            if (indices.length > 1) {
+                List<Task> removed = tasks.deleteAll(indices);
+                if (!storage.saveBatch(tasks.getTasks())) {
+                    ui.showError(ERROR_SAVE_FAILED);
+                }
+                ui.showDeletedTasks(removed, tasks.size());
+                return;
+            }
+
+            int index = indices[0];
             Task removed = tasks.delete(index);
 
-            if (!storage.save(tasks.getTasks())) {
+            if (!storage.saveDeleted(tasks.getTasks(), removed, index)) {
                 ui.showError(ERROR_SAVE_FAILED);
             }
             ui.showDeletedTask(removed, tasks.size());
@@ -191,18 +344,115 @@ public class Parser {
         }
     }
 
+    /**
+     * Handles 'undo' and 'redo'. The list that results is saved as a whole,
+     * since it may differ from the saved one in any number of tasks.
+     *
+     * @param command Either "undo" or "redo"
+     * @param tasks   TaskList to change
+     * @param ui      Ui for output
+     * @param storage Storage to persist changes
+     */
+    private static void handleUndoRedo(String command, TaskList tasks, Ui ui, Storage storage) {
+        boolean isUndo = COMMAND_UNDO.equals(command);
+        boolean isChanged = isUndo ? tasks.undo() : tasks.redo();
+        if (!isChanged) {
+            ui.showError(isUndo ? ERROR_NOTHING_TO_UNDO : ERROR_NOTHING_TO_REDO);
+            return;
+        }
+
+        if (!storage.saveBatch(tasks.getTasks())) {
+            ui.showError(ERROR_SAVE_FAILED);
+        }
+        if (isUndo) {
+            ui.showUndone(tasks.size());
+        } else {
+            ui.showRedone(tasks.size());
+        }
+    }
+
+    /**
+     * Resolves a comma-separated list of task references to 0-based indices.
+     * Each item is a single reference as accepted by
+     * {@link #parseTaskIndexOrThrow(String, TaskList)}, or an inclusive range of
+     * list positions such as "10-40". Every item is checked before any is used,
+     * so a bad item leaves the list untouched.
+     *
+     * @return Distinct indices in ascending order, at least one
+     */
+    private static int[] parseTaskIndicesOrThrow(String references, TaskList tasks) {
+        if (references.isEmpty()) {
+            throw new IllegalArgumentException(ERROR_NO_TASK_NUMBER);
+        }
+
+        BitSet indices = new BitSet();
+        int itemStart = 0;
+        while (itemStart <= references.length()) {
+            int separator = references.indexOf(REFERENCE_SEPARATOR, itemStart);
+            int itemEnd = separator < 0 ? references.length() : separator;
+            int start = CommandLine.skipSpaces(references, itemStart, itemEnd);
+            int end = CommandLine.trimEnd(references, start, itemEnd);
+            itemStart = itemEnd + 1;
+
+            // A range is digits, a dash and digits, with optional spaces around the dash.
+            int firstEnd = digitsEnd(references, start, end);
+            int dash = CommandLine.skipSpaces(references, firstEnd, end);
+            int lastStart = dash < end && references.charAt(dash) == RANGE_SEPARATOR
+                    ? CommandLine.skipSpaces(references, dash + 1, end)
+                    : end;
+            if (firstEnd == start || lastStart == end || digitsEnd(references, lastStart, end) != end) {
+                indices.set(parseTaskIndexOrThrow(references.substring(start, end), tasks));
+                continue;
+            }
+
+            int first;
+            int last;
+            try {
+                first = Integer.parseInt(references, start, firstEnd, 10);
+                last = Integer.parseInt(references, lastStart, end, 10);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("You cannot attack what is not there!");
+            }
+            if (first > last) {
+                throw new IllegalArgumentException(ERROR_BAD_RANGE);
+            }
+            if (first < 1 || last > tasks.size()) {
+                throw new IllegalArgumentException("You cannot attack what is not there!");
+            }
+            indices.set(first - 1, last);
+        }
+        return indices.stream().toArray();
+    }
+
+    /** Returns the end of the run of ASCII digits starting at start. */
+    private static int digitsEnd(String text, int start, int end) {
+        int i = start;
+        while (i < end && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Resolves a task reference to its current 0-based index. The reference is
+     * either the position shown in the list (e.g. "3") or a task ID prefixed
+     * with '#' (e.g. "#12"), which stays the same when other tasks are deleted.
+     */
     private static int parseTaskIndexOrThrow(String raw, TaskList tasks) {
-        if (trimToEmpty(raw).isEmpty()) {
+        String reference = trimToEmpty(raw);
+        if (reference.isEmpty()) {
             throw new IllegalArgumentException(ERROR_NO_TASK_NUMBER);
         }
 
-        int index;
+        boolean isId = reference.startsWith(TASK_ID_PREFIX);
+        int number;
         try {
-            index = Integer.parseInt(trimToEmpty(raw)) - 1;
+            number = Integer.parseInt(isId ? reference.substring(TASK_ID_PREFIX.length()) : reference);
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException(ERROR_TASK_NUMBER_INVALID);
         }
 
+        int index = isId ? tasks.indexOfId(number) : number - 1;
         if (index < 0 || index >= tasks.size()) {
             throw new IllegalArgumentException("You cannot attack what is not there!");
         }
@@ -223,7 +473,7 @@ public class Parser {
             Task newTask = parseTaskFromInput(command, args);
 
             tasks.add(newTask);
-            if (!storage.save(tasks.getTasks())) {
+            if (!storage.saveAdded(tasks.getTasks(), newTask)) {
                 ui.showError(ERROR_SAVE_FAILED);
             }
             ui.showAddedTask(newTask, tasks.size());
@@ -259,76 +509,136 @@ public class Parser {
      * @return A ToDos task
      */
     private static Task parseTodo(String args) {
-        String desc = trimToEmpty(args);
-        if (desc.isEmpty()) {
+        if (args.isEmpty()) {
             throw new IllegalArgumentException("A quest without purpose? Even creeps have objectives.");
         }
-        return new ToDos(desc);
+        return new ToDos(args);
     }
 
     /**
      * Parses a deadline command.
      *
-     * Format: <desc> /by yyyy-MM-dd HHmm
+     * Format: <desc> /by yyyy-MM-dd HHmm [/every <period> [/until yyyy-MM-dd]]
      *
      * @param args Rest of input after "deadline"
-     * @return A Deadlines task
+     * @return A Deadlines task, or a RecurringDeadlines task if /every is given
      */
     private static Task parseDeadline(String args) {
-        String payload = trimToEmpty(args);
+        int end = args.indexOf(REPEAT_DELIMITER);
+        Recurrence recurrence = null;
+        if (end >= 0) {
+            recurrence = parseRecurrence(args.substring(end + REPEAT_DELIMITER.length()));
+        } else {
+            end = args.length();
+        }
 
-        int delimiterIndex = payload.indexOf(DEADLINE_DELIMITER);
-        if (delimiterIndex < 0) {
+        int delimiterIndex = args.indexOf(DEADLINE_DELIMITER);
+        if (delimiterIndex < 0 || delimiterIndex + DEADLINE_DELIMITER.length() > end) {
             throw new IllegalArgumentException("Your timeline is unclear. State it properly, or the battle is lost.");
         }
 
-        String desc = payload.substring(0, delimiterIndex).trim();
-        String byString = payload.substring(delimiterIndex + DEADLINE_DELIMITER.length()).trim();
+        int descEnd = CommandLine.trimEnd(args, 0, delimiterIndex);
+        int byStart = CommandLine.skipSpaces(args, delimiterIndex + DEADLINE_DELIMITER.length(), end);
+        int byEnd = CommandLine.trimEnd(args, byStart, end);
 
-        if (desc.isEmpty() || byString.isEmpty()) {
+        if (descEnd == 0 || byStart == byEnd) {
             throw new IllegalArgumentException("State the deadline clearly: deadline <desc> /by yyyy-MM-dd HHmm");
         }
 
-        LocalDateTime by = LocalDateTime.parse(byString, INPUT_FORMAT);
-        return new Deadlines(desc, by);
+        String desc = args.substring(0, descEnd);
+        LocalDateTime by = DateTimeCodec.parseInput(args, byStart, byEnd);
+        return recurrence == null ? new Deadlines(desc, by) : new RecurringDeadlines(desc, by, recurrence);
     }
 
     /**
      * Parses an event command.
      *
-     * Format: <desc> /from yyyy-MM-dd HHmm /to yyyy-MM-dd HHmm
+     * Format: <desc> /from yyyy-MM-dd HHmm /to yyyy-MM-dd HHmm [/every <period> [/until yyyy-MM-dd]]
      *
      * @param args Rest of input after "event"
-     * @return An Events task
+     * @return An Events task, or a RecurringEvents task if /every is given
      */
     private static Task parseEvent(String args) {
-        String payload = trimToEmpty(args);
+        int end = args.indexOf(REPEAT_DELIMITER);
+        Recurrence recurrence = null;
+        if (end >= 0) {
+            recurrence = parseRecurrence(args.substring(end + REPEAT_DELIMITER.length()));
+        } else {
+            end = args.length();
+        }
 
-        int fromIndex = payload.indexOf(EVENT_FROM_DELIMITER);
-        int toIndex = payload.indexOf(EVENT_TO_DELIMITER);
+        int fromIndex = args.indexOf(EVENT_FROM_DELIMITER);
+        int toIndex = args.indexOf(EVENT_TO_DELIMITER);
 
-        if (fromIndex < 0 || toIndex < 0 || toIndex <= fromIndex) {
+        if (fromIndex < 0 || toIndex < 0 || toIndex <= fromIndex || toIndex >= end) {
             throw new IllegalArgumentException(
                     "Your battle plan lacks clarity. Use: event <desc> /from yyyy-MM-dd HHmm /to yyyy-MM-dd HHmm");
         }
 
-        String desc = payload.substring(0, fromIndex).trim();
-        String fromString = payload.substring(fromIndex + EVENT_FROM_DELIMITER.length(), toIndex).trim();
-        String toString = payload.substring(toIndex + EVENT_TO_DELIMITER.length()).trim();
+        int descEnd = CommandLine.trimEnd(args, 0, fromIndex);
+        int fromStart = CommandLine.skipSpaces(args,
+                Math.min(fromIndex + EVENT_FROM_DELIMITER.length(), toIndex), toIndex);
+        int fromEnd = CommandLine.trimEnd(args, fromStart, toIndex);
+        int toStart = CommandLine.skipSpaces(args, Math.min(toIndex + EVENT_TO_DELIMITER.length(), end), end);
+        int toEnd = CommandLine.trimEnd(args, toStart, end);
 
-        if (desc.isEmpty() || fromString.isEmpty() || toString.isEmpty()) {
+        if (descEnd == 0 || fromStart == fromEnd || toStart == toEnd) {
             throw new IllegalArgumentException(
                     "Your battle plan lacks clarity. Use: event <desc> /from yyyy-MM-dd HHmm /to yyyy-MM-dd HHmm");
         }
 
-        LocalDateTime from = LocalDateTime.parse(fromString, INPUT_FORMAT);
-        LocalDateTime to = LocalDateTime.parse(toString, INPUT_FORMAT);
+        String desc = args.substring(0, descEnd);
+        LocalDateTime from = DateTimeCodec.parseInput(args, fromStart, fromEnd);
+        LocalDateTime to = DateTimeCodec.parseInput(args, toStart, toEnd);
 
         if (to.isBefore(from)) {
             throw new IllegalArgumentException("Event end time must be after start time.");
         }
 
-        return new Events(desc, from, to);
+        return recurrence == null ? new Events(desc, from, to) : new RecurringEvents(desc, from, to, recurrence);
+    }
+
+    /**
+     * Parses the period after /every, such as "week", "3 days" or
+     * "month /until 2026-12-31".
+     *
+     * @param spec Text after "/every"
+     * @return The repeat rule
+     * @throws IllegalArgumentException If the period or end date is invalid
+     */
+    private static Recurrence parseRecurrence(String spec) {
+        String period = spec.trim();
+        LocalDate until = null;
+        int untilIndex = period.indexOf(REPEAT_UNTIL_DELIMITER);
+        if (untilIndex >= 0) {
+            try {
+                int untilStart = CommandLine.skipSpaces(period, untilIndex + REPEAT_UNTIL_DELIMITER.length(),
+                        period.length());
+                until = DateTimeCodec.parseIsoDate(period, untilStart, period.length());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(ERROR_REPEAT_BAD_UNTIL);
+            }
+            period = period.substring(0, untilIndex).trim();
+        }
+
+        // The period is a unit, optionally preceded by an interval: "week" or "2 weeks".
+        int firstEnd = CommandLine.indexOfSpace(period, 0, period.length());
+        int secondStart = CommandLine.skipSpaces(period, firstEnd, period.length());
+        int secondEnd = CommandLine.indexOfSpace(period, secondStart, period.length());
+        if (secondEnd < period.length()) {
+            throw new IllegalArgumentException(ERROR_REPEAT_USAGE);
+        }
+        boolean hasInterval = secondStart < secondEnd;
+        Recurrence.Unit unit = Recurrence.Unit.named(hasInterval ? period.substring(secondStart) : period);
+        if (unit == null) {
+            throw new IllegalArgumentException(ERROR_REPEAT_USAGE);
+        }
+        try {
+            int interval = hasInterval ? Integer.parseInt(period, 0, firstEnd, 10) : 1;
+            return new Recurrence(interval, unit, until);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(ERROR_REPEAT_USAGE);
+        }
     }
 
     /**
@@ -339,14 +649,18 @@ public class Parser {
      * @param ui    Ui for output
      */
     private static void handleFind(String args, TaskList tasks, Ui ui) {
-        String keyword = trimToEmpty(args);
+        PageRequest page = parsePageOrShowError(args, ui);
+        if (page == null) {
+            return;
+        }
+        String keyword = page.getArgs();
         if (keyword.isEmpty()) {
             ui.showError(ERROR_FIND_NO_KEYWORD);
             return;
         }
 
-        TaskList matchingTasks = tasks.findTasks(keyword);
-        ui.showSearchResults(matchingTasks);
+        TaskView matchingTasks = tasks.findTasks(keyword);
+        ui.showSearchResults(matchingTasks, page);
     }
 
     /**
@@ -374,25 +688,29 @@ public class Parser {
      * Formats:
      * - remind (defaults to 7 days)
      * - remind <days> (e.g., remind 3)
+     * - either form followed by /page <N> and/or /size <M>
      *
      * @param args  Rest of input after "remind"
      * @param tasks TaskList to search
      * @param ui    Ui for output
      */
     private static void handleRemind(String args, TaskList tasks, Ui ui) {
-        String raw = trimToEmpty(args);
+        PageRequest page = parsePageOrShowError(args, ui);
+        if (page == null) {
+            return;
+        }
+        String raw = page.getArgs();
 
         int days = DEFAULT_REMIND_DAYS;
 
         if (!raw.isEmpty()) {
-            String[] parts = raw.split("\\s+");
-            if (parts.length > 1) {
+            if (CommandLine.indexOfSpace(raw, 0, raw.length()) < raw.length()) {
                 ui.showError(ERROR_REMIND_TOO_MANY);
                 return;
             }
 
             try {
-                days = Integer.parseInt(parts[0]);
+                days = Integer.parseInt(raw);
             } catch (NumberFormatException e) {
                 ui.showError(ERROR_REMIND_BAD_DAYS);
                 return;
@@ -404,7 +722,131 @@ public class Parser {
             return;
         }
 
-        TaskList reminders = tasks.getReminders(days);
-        ui.showReminders(reminders, days);
+        TaskView reminders = tasks.getReminders(days);
+        ui.showReminders(reminders, days, page);
+    }
+
+    /**
+     * Handles the 'query' command, which lists the tasks that meet every given filter.
+     *
+     * Format: query [/type todo|deadline|event] [/done yes|no] [/text KEYWORD]
+     *         [/after yyyy-MM-dd] [/before yyyy-MM-dd] [/overdue], optionally followed by paging options
+     *
+     * @param args  Rest of input after "query"
+     * @param tasks TaskList to query
+     * @param ui    Ui for output
+     */
+    private static void handleQuery(String args, TaskList tasks, Ui ui) {
+        PageRequest page = parsePageOrShowError(args, ui);
+        if (page == null) {
+            return;
+        }
+
+        try {
+            ui.showQueryResults(tasks.query(parseQuery(page.getArgs())), page);
+        } catch (IllegalArgumentException e) {
+            ui.showError(e.getMessage());
+        } catch (DateTimeParseException e) {
+            ui.showError(ERROR_SHOW_BAD_DATE);
+        }
+    }
+
+    /**
+     * Parses query filters. Each filter is a /name followed by its value, which
+     * runs up to the next filter; /overdue takes no value.
+     */
+    private static TaskQuery parseQuery(String args) {
+        Map<String, String> filters = new HashMap<>();
+        int end = args.length();
+        int tokenStart = CommandLine.skipSpaces(args, 0, end);
+        while (tokenStart < end) {
+            int tokenEnd = CommandLine.indexOfSpace(args, tokenStart, end);
+            String name = queryFilterName(args, tokenStart, tokenEnd);
+            if (name == null) {
+                throw new IllegalArgumentException(ERROR_QUERY_USAGE);
+            }
+            tokenStart = CommandLine.skipSpaces(args, tokenEnd, end);
+
+            // The value is every following word up to the next filter, joined by single spaces.
+            StringBuilder value = new StringBuilder();
+            while (!QUERY_OVERDUE.equals(name) && tokenStart < end) {
+                tokenEnd = CommandLine.indexOfSpace(args, tokenStart, end);
+                if (queryFilterName(args, tokenStart, tokenEnd) != null) {
+                    break;
+                }
+                value.append(value.length() == 0 ? "" : " ").append(args, tokenStart, tokenEnd);
+                tokenStart = CommandLine.skipSpaces(args, tokenEnd, end);
+            }
+            if (!QUERY_OVERDUE.equals(name) && value.length() == 0) {
+                throw new IllegalArgumentException(ERROR_QUERY_USAGE);
+            }
+            if (filters.put(name, value.toString()) != null) {
+                throw new IllegalArgumentException(ERROR_QUERY_REPEATED);
+            }
+        }
+        if (filters.isEmpty()) {
+            throw new IllegalArgumentException(ERROR_QUERY_NO_FILTER);
+        }
+
+        LocalDate after = parseQueryDate(filters.get(QUERY_AFTER));
+        LocalDate before = parseQueryDate(filters.get(QUERY_BEFORE));
+        if (after != null && before != null && after.isAfter(before)) {
+            throw new IllegalArgumentException(ERROR_SHOW_BAD_RANGE);
+        }
+        return new TaskQuery(parseQueryType(filters.get(QUERY_TYPE)), parseQueryDone(filters.get(QUERY_DONE)),
+                filters.get(QUERY_TEXT), after, before, filters.containsKey(QUERY_OVERDUE));
+    }
+
+    /** Returns the filter name if the token in [start, end) is a query filter such as "/type", otherwise null. */
+    private static String queryFilterName(String args, int start, int end) {
+        if (!args.startsWith(QUERY_OPTION_PREFIX, start)) {
+            return null;
+        }
+        String name = args.substring(start + QUERY_OPTION_PREFIX.length(), end).toLowerCase();
+        switch (name) {
+        case QUERY_TYPE:
+        case QUERY_DONE:
+        case QUERY_TEXT:
+        case QUERY_AFTER:
+        case QUERY_BEFORE:
+        case QUERY_OVERDUE:
+            return name;
+        default:
+            return null;
+        }
+    }
+
+    private static LocalDate parseQueryDate(String value) {
+        return value == null ? null : DateTimeCodec.parseIsoDate(value, 0, value.length());
+    }
+
+    private static TaskQuery.Type parseQueryType(String value) {
+        if (value == null) {
+            return null;
+        }
+        switch (value.toLowerCase()) {
+        case COMMAND_TODO:
+            return TaskQuery.Type.TODO;
+        case COMMAND_DEADLINE:
+            return TaskQuery.Type.DEADLINE;
+        case COMMAND_EVENT:
+            return TaskQuery.Type.EVENT;
+        default:
+            throw new IllegalArgumentException(ERROR_QUERY_BAD_TYPE);
+        }
+    }
+
+    private static Boolean parseQueryDone(String value) {
+        if (value == null) {
+            return null;
+        }
+        switch (value.toLowerCase()) {
+        case "yes":
+            return Boolean.TRUE;
+        case "no":
+            return Boolean.FALSE;
+        default:
+            throw new IllegalArgumentException(ERROR_QUERY_BAD_DONE);
+        }
     }
 }
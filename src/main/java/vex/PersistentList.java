@@ -0,0 +1,287 @@
+package vex;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable list whose updates return a new list sharing most of its
+ * structure with the old one.
+ * <p>
+ * Backed by an AVL tree ordered by position, where every node knows the size
+ * of its subtree. Reading, replacing, appending and removing an element all
+ * cost O(log n) time and allocate O(log n) new nodes; every earlier version
+ * stays valid and unchanged. This makes it cheap to hand a consistent view to
+ * another thread, or to keep old versions around.
+ * </p>
+ *
+ * @param <T> Element type
+ */
+final class PersistentList<T> {
+
+    private static final PersistentList<?> EMPTY = new PersistentList<>(null);
+
+    private final Node<T> root;
+
+    private PersistentList(Node<T> root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the empty list.
+     *
+     * @param <T> Element type
+     * @return Empty list
+     */
+    @SuppressWarnings("unchecked")
+    static <T> PersistentList<T> empty() {
+        return (PersistentList<T>) EMPTY;
+    }
+
+    /**
+     * Returns a list with the given elements, built in O(n).
+     *
+     * @param elements Elements in order
+     * @param <T>      Element type
+     * @return List holding the elements
+     */
+    static <T> PersistentList<T> of(List<? extends T> elements) {
+        return new PersistentList<>(build(elements, 0, elements.size()));
+    }
+
+    int size() {
+        return sizeOf(root);
+    }
+
+    /**
+     * Returns the element at the given position.
+     *
+     * @param index 0-based position
+     * @return The element
+     * @throws IndexOutOfBoundsException If index is out of range
+     */
+    T get(int index) {
+        checkIndex(index, size());
+        Node<T> node = root;
+        int position = index;
+        while (true) {
+            int leftSize = sizeOf(node.left);
+            if (position < leftSize) {
+                node = node.left;
+            } else if (position > leftSize) {
+                position -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+    }
+
+    /**
+     * Returns a list with the element at the given position replaced.
+     *
+     * @param index 0-based position
+     * @param value New element
+     * @return Updated list
+     * @throws IndexOutOfBoundsException If index is out of range
+     */
+    PersistentList<T> set(int index, T value) {
+        checkIndex(index, size());
+        return new PersistentList<>(set(root, index, value));
+    }
+
+    /**
+     * Returns a list with the element appended.
+     *
+     * @param value Element to append
+     * @return Updated list
+     */
+    PersistentList<T> add(T value) {
+        return new PersistentList<>(insert(root, size(), value));
+    }
+
+    /**
+     * Returns a list without the element at the given position.
+     *
+     * @param index 0-based position
+     * @return Updated list
+     * @throws IndexOutOfBoundsException If index is out of range
+     */
+    PersistentList<T> remove(int index) {
+        checkIndex(index, size());
+        return new PersistentList<>(remove(root, index));
+    }
+
+    /**
+     * Returns a read-only {@link List} view of this version. Iteration is O(n);
+     * positional access is O(log n).
+     *
+     * @return List view
+     */
+    List<T> asList() {
+        return new AbstractList<T>() {
+            @Override
+            public T get(int index) {
+                return PersistentList.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return PersistentList.this.size();
+            }
+
+            @Override
+            public Iterator<T> iterator() {
+                return new InOrderIterator<>(root);
+            }
+        };
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static <T> Node<T> build(List<? extends T> elements, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        return new Node<>(elements.get(middle), build(elements, from, middle), build(elements, middle + 1, to));
+    }
+
+    private static <T> Node<T> set(Node<T> node, int index, T value) {
+        int leftSize = sizeOf(node.left);
+        if (index < leftSize) {
+            return new Node<>(node.value, set(node.left, index, value), node.right);
+        }
+        if (index > leftSize) {
+            return new Node<>(node.value, node.left, set(node.right, index - leftSize - 1, value));
+        }
+        return new Node<>(value, node.left, node.right);
+    }
+
+    private static <T> Node<T> insert(Node<T> node, int index, T value) {
+        if (node == null) {
+            return new Node<>(value, null, null);
+        }
+        int leftSize = sizeOf(node.left);
+        if (index <= leftSize) {
+            return balance(node.value, insert(node.left, index, value), node.right);
+        }
+        return balance(node.value, node.left, insert(node.right, index - leftSize - 1, value));
+    }
+
+    private static <T> Node<T> remove(Node<T> node, int index) {
+        int leftSize = sizeOf(node.left);
+        if (index < leftSize) {
+            return balance(node.value, remove(node.left, index), node.right);
+        }
+        if (index > leftSize) {
+            return balance(node.value, node.left, remove(node.right, index - leftSize - 1));
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        T successor = first(node.right);
+        return balance(successor, node.left, remove(node.right, 0));
+    }
+
+    private static <T> T first(Node<T> node) {
+        Node<T> current = node;
+        while (current.left != null) {
+            current = current.left;
+        }
+        return current.value;
+    }
+
+    /** Creates a node from the given parts, rotating if the AVL height rule would be broken. */
+    private static <T> Node<T> balance(T value, Node<T> left, Node<T> right) {
+        int difference = heightOf(left) - heightOf(right);
+        if (difference > 1) {
+            if (heightOf(left.left) < heightOf(left.right)) {
+                Node<T> pivot = left.right;
+                return new Node<>(pivot.value, new Node<>(left.value, left.left, pivot.left),
+                        new Node<>(value, pivot.right, right));
+            }
+            return new Node<>(left.value, left.left, new Node<>(value, left.right, right));
+        }
+        if (difference < -1) {
+            if (heightOf(right.right) < heightOf(right.left)) {
+                Node<T> pivot = right.left;
+                return new Node<>(pivot.value, new Node<>(value, left, pivot.left),
+                        new Node<>(right.value, pivot.right, right.right));
+            }
+            return new Node<>(right.value, new Node<>(value, left, right.left), right.right);
+        }
+        return new Node<>(value, left, right);
+    }
+
+    private static int sizeOf(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int heightOf(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * An immutable tree node.
+     */
+    private static final class Node<T> {
+        private final T value;
+        private final Node<T> left;
+        private final Node<T> right;
+        private final int size;
+        private final int height;
+
+        Node(T value, Node<T> left, Node<T> right) {
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.size = sizeOf(left) + sizeOf(right) + 1;
+            this.height = Math.max(heightOf(left), heightOf(right)) + 1;
+        }
+    }
+
+    /**
+     * Walks a tree in order with an explicit stack.
+     */
+    private static final class InOrderIterator<T> implements Iterator<T> {
+        private final Deque<Node<T>> stack = new ArrayDeque<>();
+
+        InOrderIterator(Node<T> root) {
+            pushLeftSpine(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node<T> node = stack.pop();
+            pushLeftSpine(node.right);
+            return node.value;
+        }
+
+        private void pushLeftSpine(Node<T> node) {
+            Node<T> current = node;
+            while (current != null) {
+                stack.push(current);
+                current = current.left;
+            }
+        }
+    }
+}
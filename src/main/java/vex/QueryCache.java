@@ -0,0 +1,96 @@
+package vex;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded least-recently-used cache of query results for a {@link TaskList}.
+ * <p>
+ * Every entry records the list version it was computed at. A lookup at any
+ * other version is a miss, so a single change to the list invalidates all
+ * cached results without having to visit them; stale entries are replaced
+ * when queried again or evicted once the cache is full.
+ * </p>
+ * <p>
+ * The cache is thread-safe, so one cache can serve readers on several threads.
+ * </p>
+ *
+ * @param <V> Result type
+ */
+final class QueryCache<V> {
+
+    private final Map<String, Entry<V>> entries;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param capacity Maximum number of results kept
+     * @throws IllegalArgumentException If capacity is not positive
+     */
+    QueryCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.entries = new LinkedHashMap<String, Entry<V>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result for the key at the given version, computing
+     * and caching it on a miss. The query runs outside the cache lock, so
+     * concurrent misses may compute the same result more than once.
+     *
+     * @param key     Query type and arguments
+     * @param version Current version of the list
+     * @param query   Computes the result when it is not cached
+     * @return The result of the query at that version
+     */
+    V get(String key, long version, Supplier<V> query) {
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.version == version) {
+                hits++;
+                return entry.result;
+            }
+            misses++;
+        }
+        V result = query.get();
+        synchronized (this) {
+            Entry<V> current = entries.get(key);
+            if (current == null || current.version <= version) {
+                entries.put(key, new Entry<>(version, result));
+            }
+        }
+        return result;
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * A result and the list version it was computed at.
+     */
+    private static final class Entry<V> {
+        private final long version;
+        private final V result;
+
+        Entry(long version, V result) {
+            this.version = version;
+            this.result = result;
+        }
+    }
+}
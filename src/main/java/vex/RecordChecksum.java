@@ -0,0 +1,80 @@
+package vex;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Adds and verifies the CRC-32 suffix carried by every line of the text save
+ * file and the journal. A sealed line looks like {@code <content> | #<8 hex digits>}.
+ * Lines without that suffix are unsealed: either written before checksums
+ * existed or cut short, so callers check {@link #isSealed(String)} and decide
+ * for themselves whether to trust them.
+ */
+final class RecordChecksum {
+
+    private static final String SUFFIX_MARKER = " | #";
+    private static final int HEX_DIGITS = 8;
+    private static final int SUFFIX_LENGTH = SUFFIX_MARKER.length() + HEX_DIGITS;
+
+    private RecordChecksum() {
+    }
+
+    /**
+     * Appends the checksum of content to it.
+     *
+     * @param content Record without checksum
+     * @return Record with checksum suffix
+     */
+    static String seal(String content) {
+        StringBuilder sealed = new StringBuilder(content.length() + SUFFIX_LENGTH);
+        sealed.append(content).append(SUFFIX_MARKER);
+        String hex = Long.toHexString(crcOf(content));
+        for (int i = hex.length(); i < HEX_DIGITS; i++) {
+            sealed.append('0');
+        }
+        return sealed.append(hex).toString();
+    }
+
+    /**
+     * Returns true if a line ends with a well-formed checksum suffix, whether or not it matches.
+     *
+     * @param line Line as read from disk
+     * @return true if the line is sealed
+     */
+    static boolean isSealed(String line) {
+        int markerStart = line.length() - SUFFIX_LENGTH;
+        if (markerStart < 0 || !line.startsWith(SUFFIX_MARKER, markerStart)) {
+            return false;
+        }
+        for (int i = markerStart + SUFFIX_MARKER.length(); i < line.length(); i++) {
+            if (Character.digit(line.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Verifies and removes the checksum suffix of a line.
+     *
+     * @param line Line as read from disk
+     * @return The content without suffix, or null if the line is unsealed
+     *         or the checksum does not match
+     */
+    static String open(String line) {
+        if (!isSealed(line)) {
+            return null;
+        }
+
+        int markerStart = line.length() - SUFFIX_LENGTH;
+        long expected = Long.parseLong(line.substring(markerStart + SUFFIX_MARKER.length()), 16);
+        String content = line.substring(0, markerStart);
+        return crcOf(content) == expected ? content : null;
+    }
+
+    private static long crcOf(String content) {
+        CRC32 crc = new CRC32();
+        crc.update(content.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
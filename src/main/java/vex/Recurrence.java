@@ -0,0 +1,222 @@
+package vex;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * A rule that repeats a deadline or event every N days, weeks or months,
+ * optionally until an end date.
+ * <p>
+ * Only the rule and the first occurrence are stored. Occurrences are computed
+ * when asked for: the first one at or after a given time is found
+ * arithmetically from the first occurrence, so no occurrence before a query
+ * window is ever generated. Monthly occurrences are always counted from the
+ * first one, so a series starting on the 31st falls on the last day of
+ * shorter months without drifting.
+ * </p>
+ */
+public final class Recurrence {
+
+    /**
+     * Units a rule can repeat in.
+     */
+    public enum Unit {
+        DAY('d', "day"),
+        WEEK('w', "week"),
+        MONTH('m', "month");
+
+        private final char code;
+        private final String name;
+
+        Unit(char code, String name) {
+            this.code = code;
+            this.name = name;
+        }
+
+        /**
+         * Returns the unit with the given name, singular or plural.
+         *
+         * @param name Name such as "day" or "weeks", in any case
+         * @return The unit, or null if the name is unknown
+         */
+        static Unit named(String name) {
+            for (Unit unit : values()) {
+                if (unit.name.equalsIgnoreCase(name) || (unit.name + "s").equalsIgnoreCase(name)) {
+                    return unit;
+                }
+            }
+            return null;
+        }
+
+        private static Unit ofCode(char code) {
+            for (Unit unit : values()) {
+                if (unit.code == code) {
+                    return unit;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Separates the end date from the period in the encoded form, as in "2w..2026-12-31". */
+    private static final String UNTIL_SEPARATOR = "..";
+
+    private final int interval;
+    private final Unit unit;
+    private final LocalDate until;
+
+    /**
+     * Creates a rule.
+     *
+     * @param interval Number of units between occurrences, at least 1
+     * @param unit     Unit of the interval
+     * @param until    Last date an occurrence may start on (inclusive), or null to repeat forever
+     * @throws IllegalArgumentException If interval is below 1 or unit is null
+     */
+    public Recurrence(int interval, Unit unit, LocalDate until) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("A task repeats at least every 1 day, week or month.");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("unit must not be null");
+        }
+        this.interval = interval;
+        this.unit = unit;
+        this.until = until;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public Unit getUnit() {
+        return unit;
+    }
+
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    /**
+     * Returns the start of the first occurrence at or after the given time.
+     *
+     * @param first Start of the first occurrence of the series
+     * @param time  Earliest start wanted
+     * @return Start of that occurrence, or null if the series ends before it
+     */
+    LocalDateTime firstStartFrom(LocalDateTime first, LocalDateTime time) {
+        long n = time.isAfter(first) ? periodsBefore(first, time) : 0;
+        while (n > 0 && !occurrence(first, n - 1).isBefore(time)) {
+            n--;
+        }
+        LocalDateTime start = occurrence(first, n);
+        while (start.isBefore(time)) {
+            n++;
+            start = occurrence(first, n);
+        }
+        return isWithinEnd(start) ? start : null;
+    }
+
+    /**
+     * Returns the start of the last occurrence of the series.
+     *
+     * @param first Start of the first occurrence of the series
+     * @return Start of the last occurrence, or null if the series repeats forever
+     */
+    LocalDateTime lastStart(LocalDateTime first) {
+        if (until == null) {
+            return null;
+        }
+        LocalDateTime end = until.plusDays(1).atStartOfDay();
+        if (!end.isAfter(first)) {
+            return first;
+        }
+        long n = periodsBefore(first, end);
+        while (n > 0 && !occurrence(first, n).isBefore(end)) {
+            n--;
+        }
+        return occurrence(first, n);
+    }
+
+    /** Returns a number of whole periods that fit between first and time, never too many. */
+    private long periodsBefore(LocalDateTime first, LocalDateTime time) {
+        switch (unit) {
+        case DAY:
+            return ChronoUnit.DAYS.between(first, time) / interval;
+        case WEEK:
+            return ChronoUnit.WEEKS.between(first, time) / interval;
+        default:
+            return ChronoUnit.MONTHS.between(first, time) / interval;
+        }
+    }
+
+    private LocalDateTime occurrence(LocalDateTime first, long n) {
+        long units = n * interval;
+        switch (unit) {
+        case DAY:
+            return first.plusDays(units);
+        case WEEK:
+            return first.plusWeeks(units);
+        default:
+            return first.plusMonths(units);
+        }
+    }
+
+    private boolean isWithinEnd(LocalDateTime start) {
+        return until == null || !start.toLocalDate().isAfter(until);
+    }
+
+    /**
+     * Returns the compact form of the rule kept in save files, such as "1w" or "3d..2026-12-31".
+     *
+     * @return Encoded rule
+     */
+    public String encode() {
+        String period = interval + String.valueOf(unit.code);
+        return until == null ? period : period + UNTIL_SEPARATOR + until;
+    }
+
+    /**
+     * Reads a rule from its compact form.
+     *
+     * @param encoded Rule as returned by {@link #encode()}
+     * @return The rule
+     * @throws IllegalArgumentException If the text is not a valid rule
+     */
+    public static Recurrence decode(String encoded) {
+        String period = encoded;
+        LocalDate until = null;
+        int separator = encoded.indexOf(UNTIL_SEPARATOR);
+        if (separator >= 0) {
+            period = encoded.substring(0, separator);
+            try {
+                until = DateTimeCodec.parseIsoDate(encoded, separator + UNTIL_SEPARATOR.length(), encoded.length());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid repeat end: " + encoded);
+            }
+        }
+
+        Unit unit = period.isEmpty() ? null : Unit.ofCode(period.charAt(period.length() - 1));
+        if (unit == null) {
+            throw new IllegalArgumentException("Invalid repeat rule: " + encoded);
+        }
+        try {
+            return new Recurrence(Integer.parseInt(period.substring(0, period.length() - 1)), unit, until);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid repeat rule: " + encoded);
+        }
+    }
+
+    /**
+     * Returns the rule as shown to the user, such as "every week" or "every 3 days until Dec 31 2026".
+     *
+     * @return Readable rule
+     */
+    @Override
+    public String toString() {
+        String period = interval == 1 ? "every " + unit.name : "every " + interval + " " + unit.name + "s";
+        return until == null ? period : period + " until " + DateTimeCodec.formatDisplayDate(until);
+    }
+}
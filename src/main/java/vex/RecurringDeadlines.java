@@ -0,0 +1,132 @@
+package vex;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Represents a deadline that repeats, such as a weekly report.
+ * The series is one task with one done status; its occurrences are computed
+ * from the first due time and the {@link Recurrence} rule when a query asks
+ * for them.
+ */
+public class RecurringDeadlines extends Deadlines {
+
+    /** How the deadline repeats after the first due time. */
+    private final Recurrence recurrence;
+
+    /**
+     * Constructs a repeating deadline.
+     *
+     * @param description The task description
+     * @param by          The first due date and time
+     * @param recurrence  How the deadline repeats
+     * @throws IllegalArgumentException If by or recurrence is null, or the series ends before it starts
+     */
+    public RecurringDeadlines(String description, LocalDateTime by, Recurrence recurrence) {
+        super(description, by);
+
+        if (recurrence == null) {
+            throw new IllegalArgumentException("Repeat rule must not be null.");
+        }
+        if (recurrence.getUntil() != null && recurrence.getUntil().isBefore(by.toLocalDate())) {
+            throw new IllegalArgumentException("A repeating objective cannot end before it begins.");
+        }
+
+        this.recurrence = recurrence;
+    }
+
+    /**
+     * Returns the rule the deadline repeats by.
+     *
+     * @return The repeat rule
+     */
+    @Override
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    @Override
+    public Task copy() {
+        return copyStateTo(new RecurringDeadlines(getDescription(), getBy(), recurrence));
+    }
+
+    /**
+     * Returns the deadline as shown to the user, with its repeat rule.
+     *
+     * @return Formatted string
+     */
+    @Override
+    public String toString() {
+        String deadline = super.toString();
+        return deadline.substring(0, deadline.length() - 1) + ", " + recurrence + ")";
+    }
+
+    /**
+     * Returns the save string of a deadline followed by the encoded rule.
+     *
+     * @return Save string
+     */
+    @Override
+    public String toFileString() {
+        return super.toFileString() + " | " + recurrence.encode();
+    }
+
+    /**
+     * Returns the date of the last occurrence.
+     *
+     * @return Last due date, or {@link LocalDate#MAX} if the deadline repeats forever
+     */
+    @Override
+    public LocalDate getEndDate() {
+        LocalDateTime last = recurrence.lastStart(getBy());
+        return last == null ? LocalDate.MAX : last.toLocalDate();
+    }
+
+    @Override
+    public boolean occursOn(LocalDate date) {
+        return date != null && occursBetween(date, date);
+    }
+
+    @Override
+    public boolean occursBetween(LocalDate from, LocalDate to) {
+        return isScheduledBetween(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+    }
+
+    @Override
+    public boolean isScheduledBetween(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime due = recurrence.firstStartFrom(getBy(), from);
+        return due != null && due.isBefore(to);
+    }
+
+    @Override
+    public boolean isDueWithin(LocalDate todayDate, int days) {
+        return isScheduledBetween(todayDate.atStartOfDay(), todayDate.plusDays(days + 1L).atStartOfDay());
+    }
+
+    /**
+     * Returns true if the series has ended and is still not done. A deadline
+     * that repeats forever is never overdue.
+     *
+     * @param now Current time
+     * @return true if the last occurrence has passed unfinished
+     */
+    @Override
+    public boolean isOverdue(LocalDateTime now) {
+        LocalDateTime last = recurrence.lastStart(getBy());
+        return !isDone() && last != null && last.isBefore(now);
+    }
+
+    @Override
+    public Task getOccurrenceStartingFrom(LocalDateTime time) {
+        LocalDateTime due = recurrence.firstStartFrom(getBy(), time);
+        if (due == null || due.equals(getBy())) {
+            return this;
+        }
+        return copyStateTo(new RecurringDeadlines(getDescription(), due, recurrence));
+    }
+
+    @Override
+    public Task getOccurrenceEndingFrom(LocalDateTime time) {
+        return getOccurrenceStartingFrom(time);
+    }
+}
@@ -0,0 +1,147 @@
+package vex;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Represents an event that repeats, such as a weekly standup.
+ * The series is one task with one done status; every occurrence lasts as long
+ * as the first, and occurrences are computed from the first start time and the
+ * {@link Recurrence} rule when a query asks for them.
+ */
+public class RecurringEvents extends Events {
+
+    /** How the event repeats after the first occurrence. */
+    private final Recurrence recurrence;
+
+    /**
+     * Constructs a repeating event.
+     *
+     * @param description The event description
+     * @param from        Start of the first occurrence
+     * @param to          End of the first occurrence
+     * @param recurrence  How the event repeats
+     * @throws IllegalArgumentException If a date or recurrence is null, from is after to,
+     *                                  or the series ends before it starts
+     */
+    public RecurringEvents(String description, LocalDateTime from, LocalDateTime to, Recurrence recurrence) {
+        super(description, from, to);
+
+        if (recurrence == null) {
+            throw new IllegalArgumentException("Repeat rule must not be null.");
+        }
+        if (recurrence.getUntil() != null && recurrence.getUntil().isBefore(from.toLocalDate())) {
+            throw new IllegalArgumentException("A repeating objective cannot end before it begins.");
+        }
+
+        this.recurrence = recurrence;
+    }
+
+    /**
+     * Returns the rule the event repeats by.
+     *
+     * @return The repeat rule
+     */
+    @Override
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    @Override
+    public Task copy() {
+        return copyStateTo(new RecurringEvents(getDescription(), getFrom(), getTo(), recurrence));
+    }
+
+    /**
+     * Returns the event as shown to the user, with its repeat rule.
+     *
+     * @return Formatted string
+     */
+    @Override
+    public String toString() {
+        String event = super.toString();
+        return event.substring(0, event.length() - 1) + ", " + recurrence + ")";
+    }
+
+    /**
+     * Returns the save string of an event followed by the encoded rule.
+     *
+     * @return Save string
+     */
+    @Override
+    public String toFileString() {
+        return super.toFileString() + " | " + recurrence.encode();
+    }
+
+    /**
+     * Returns the date the last occurrence ends on.
+     *
+     * @return Last end date, or {@link LocalDate#MAX} if the event repeats forever
+     */
+    @Override
+    public LocalDate getEndDate() {
+        LocalDateTime last = recurrence.lastStart(getFrom());
+        return last == null ? LocalDate.MAX : last.plus(getDuration()).toLocalDate();
+    }
+
+    @Override
+    public boolean occursOn(LocalDate date) {
+        return date != null && occursBetween(date, date);
+    }
+
+    /**
+     * Checks whether some occurrence runs on at least one day of the range.
+     * An occurrence that starts before the range still counts if it ends in it.
+     */
+    @Override
+    public boolean occursBetween(LocalDate from, LocalDate to) {
+        LocalDateTime start = recurrence.firstStartFrom(getFrom(), from.atStartOfDay().minus(getDuration()));
+        return start != null && start.isBefore(to.plusDays(1).atStartOfDay());
+    }
+
+    @Override
+    public boolean isScheduledBetween(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = recurrence.firstStartFrom(getFrom(), from);
+        return start != null && start.isBefore(to);
+    }
+
+    @Override
+    public boolean isDueWithin(LocalDate todayDate, int days) {
+        return isScheduledBetween(todayDate.atStartOfDay(), todayDate.plusDays(days + 1L).atStartOfDay());
+    }
+
+    /**
+     * Returns true if the series has ended and is still not done. An event
+     * that repeats forever is never overdue.
+     *
+     * @param now Current time
+     * @return true if the last occurrence has ended unfinished
+     */
+    @Override
+    public boolean isOverdue(LocalDateTime now) {
+        LocalDateTime last = recurrence.lastStart(getFrom());
+        return !isDone() && last != null && last.plus(getDuration()).isBefore(now);
+    }
+
+    @Override
+    public Task getOccurrenceStartingFrom(LocalDateTime time) {
+        return occurrenceAt(recurrence.firstStartFrom(getFrom(), time));
+    }
+
+    @Override
+    public Task getOccurrenceEndingFrom(LocalDateTime time) {
+        return occurrenceAt(recurrence.firstStartFrom(getFrom(), time.minus(getDuration())));
+    }
+
+    private Task occurrenceAt(LocalDateTime start) {
+        if (start == null || start.equals(getFrom())) {
+            return this;
+        }
+        return copyStateTo(new RecurringEvents(getDescription(), start, start.plus(getDuration()), recurrence));
+    }
+
+    private Duration getDuration() {
+        return Duration.between(getFrom(), getTo());
+    }
+}
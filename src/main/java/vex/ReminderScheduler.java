@@ -0,0 +1,200 @@
+package vex;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background thread that reminds the user when a deadline falls due or an event starts.
+ * <p>
+ * The next due or start time of every unfinished task is kept in a
+ * {@link TimerWheel}, so scheduling, cancelling and firing a reminder each
+ * cost O(1) and nothing is rescanned while waiting. A {@link TaskList} the
+ * scheduler is attached to reschedules a task on every change to it. A
+ * recurring task is rescheduled for its next occurrence each time one fires.
+ * </p>
+ * <p>
+ * Reminders are delivered on the scheduler thread, outside its lock, so the
+ * listener may call back into the task list.
+ * </p>
+ */
+class ReminderScheduler {
+
+    /**
+     * Receives reminders as their time comes.
+     */
+    interface Listener {
+        /**
+         * Reminds the user of a task.
+         *
+         * @param task The task, or occurrence of a recurring task, whose time has come
+         */
+        void remind(Task task);
+    }
+
+    private static final long MILLIS_PER_MINUTE = 60_000;
+
+    private final Listener listener;
+    private final Clock clock;
+    private final TimerWheel wheel;
+
+    /** Pending reminders, by task ID. */
+    private final Map<Integer, Reminder> scheduled = new HashMap<>();
+
+    private Thread thread;
+
+    /**
+     * Creates a scheduler that reads the system clock. No reminders are
+     * delivered until {@link #start()} is called.
+     *
+     * @param listener Receives the reminders
+     */
+    ReminderScheduler(Listener listener) {
+        this(listener, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Creates a scheduler that reads the given clock. No reminders are
+     * delivered until {@link #start()} is called.
+     *
+     * @param listener Receives the reminders
+     * @param clock    Clock that tells the current time
+     * @throws IllegalArgumentException If listener or clock is null
+     */
+    ReminderScheduler(Listener listener, Clock clock) {
+        if (listener == null || clock == null) {
+            throw new IllegalArgumentException("listener and clock must not be null");
+        }
+        this.listener = listener;
+        this.clock = clock;
+        this.wheel = new TimerWheel(BinaryTaskFormat.toEpochMinute(LocalDateTime.now(clock)));
+    }
+
+    /**
+     * Starts the thread that delivers reminders as their time comes. Does nothing if it is already running.
+     */
+    synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(this::runLoop, "vex-reminders");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops delivering reminders. Timers are kept.
+     */
+    synchronized void stop() {
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    /**
+     * Sets or moves the reminder of a task to its next due or start time.
+     * Finished tasks, tasks without a time, and tasks whose time has passed
+     * have their reminder cancelled.
+     *
+     * @param task Task to remind of
+     */
+    synchronized void schedule(Task task) {
+        scheduleFrom(task, BinaryTaskFormat.fromEpochMinute(wheel.getTime() + 1));
+    }
+
+    /**
+     * Cancels the reminder of a task. Does nothing if it has none.
+     *
+     * @param id Task ID
+     */
+    synchronized void cancel(int id) {
+        scheduled.remove(id);
+        wheel.remove(id);
+    }
+
+    /**
+     * Replaces every reminder with those of the given tasks.
+     *
+     * @param tasks All tasks to remind of
+     */
+    synchronized void scheduleAll(List<Task> tasks) {
+        for (Integer id : new ArrayList<>(scheduled.keySet())) {
+            cancel(id);
+        }
+        tasks.forEach(this::schedule);
+    }
+
+    /**
+     * Returns the number of tasks with a pending reminder.
+     *
+     * @return Reminder count
+     */
+    synchronized int size() {
+        return wheel.size();
+    }
+
+    /**
+     * Fires every reminder due at or before the given time, without
+     * delivering them, and schedules the next occurrence of recurring tasks
+     * after that time. A series is reminded of once even if several of its
+     * occurrences came while the scheduler was not running, such as while the computer slept.
+     *
+     * @param time Time to advance to
+     * @return The tasks or occurrences whose time has come, in time order
+     */
+    synchronized List<Task> advanceTo(LocalDateTime time) {
+        List<Task> due = new ArrayList<>();
+        for (int id : wheel.advance(BinaryTaskFormat.toEpochMinute(time))) {
+            Reminder reminder = scheduled.remove(id);
+            due.add(reminder.occurrence);
+            if (reminder.task.isRecurring()) {
+                schedule(reminder.task);
+            }
+        }
+        return due;
+    }
+
+    private void scheduleFrom(Task task, LocalDateTime from) {
+        cancel(task.getId());
+        if (task.isDone()) {
+            return;
+        }
+        Task occurrence = task.getOccurrenceStartingFrom(from);
+        LocalDateTime time = occurrence.getScheduledTime();
+        if (time == null || time.isBefore(from)) {
+            return;
+        }
+        scheduled.put(task.getId(), new Reminder(task, occurrence));
+        wheel.add(task.getId(), BinaryTaskFormat.toEpochMinute(time));
+    }
+
+    private void runLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Task> due = advanceTo(LocalDateTime.now(clock));
+            due.forEach(listener::remind);
+            try {
+                Thread.sleep(MILLIS_PER_MINUTE - clock.millis() % MILLIS_PER_MINUTE);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * A task and the occurrence of it that is reminded of next. Later
+     * occurrences are counted from the task, not from this occurrence.
+     */
+    private static final class Reminder {
+        private final Task task;
+        private final Task occurrence;
+
+        Reminder(Task task, Task occurrence) {
+            this.task = task;
+            this.occurrence = occurrence;
+        }
+    }
+}
@@ -1,24 +1,141 @@
 package vex;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Deals with loading tasks from the file and saving tasks in the file.
+ * <p>
+ * In journal mode, single-task changes are appended to a journal next to the
+ * save file instead of rewriting it, and the journal is folded back into the
+ * save file once it grows past {@link #COMPACTION_THRESHOLD_BYTES}.
+ * </p>
+ * <p>
+ * Writes caused by commands happen on a background {@link StorageWriter}, so a
+ * command returns as soon as its change is in memory. The {@link Durability}
+ * decides how often written data is forced to the device. A failed background
+ * write is reported through {@link #takeWriteFailure()}.
+ * </p>
+ * <p>
+ * The save file is either pipe-delimited text or the compact binary format of
+ * {@link BinaryTaskFormat}. Both are recognised on load, and a text file is
+ * migrated on first load when the binary format is selected.
+ * </p>
+ * <p>
+ * Snapshots are written to a temporary file, forced to the device unless the
+ * durability is {@link Durability#BUFFERED}, and then atomically renamed over
+ * the save file; the previous snapshot is kept as a backup. Every record
+ * carries a CRC-32, and a line without one is only trusted in a file
+ * written before checksums existed. If records fail verification on load,
+ * the tasks they held are restored from the backup where it still has them,
+ * and the surviving records (or the backup, if nothing survived) are written
+ * back as a clean save file, leaving the backup untouched. Records that could
+ * not be restored are listed by {@link #getLostRecords()}.
+ * </p>
+ * <p>
+ * A batch of commands can hold its changes back and commit them as one
+ * snapshot; see {@link #beginBatch()}.
+ * </p>
+ * <p>
+ * Each task is saved with its stable ID. Tasks loaded from files written before
+ * IDs existed are numbered in file order, and the file is rewritten so the
+ * numbers stick.
+ * </p>
  */
 public class Storage {
 
-    private static final String DELIMITER = " \\| ";
+    /**
+     * On-disk layout of the save file.
+     */
+    public enum SaveFormat {
+        /** One pipe-delimited line per task, as produced by {@link Task#toFileString()}. */
+        TEXT,
+        /** Compact binary records, see {@link BinaryTaskFormat}. */
+        BINARY
+    }
+
+    /**
+     * When written data is forced (fsync) to the storage device.
+     */
+    public enum Durability {
+        /** Every batch of commands is forced to the device before the next batch is written. */
+        SYNC,
+        /** Data is forced at most once per sync interval. */
+        PERIODIC,
+        /** Data is handed to the operating system and never explicitly forced, not even snapshots. */
+        BUFFERED
+    }
+
+    /** Default time between forces in {@link Durability#PERIODIC} mode. */
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 1000;
+
+    private static final String DELIMITER = " | ";
+
+    /** Buffer size used when streaming the save file in either direction. */
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+
+    /** Suffix of the copy kept of a text save file when it is migrated to binary. */
+    private static final String TEXT_BACKUP_SUFFIX = ".text.bak";
+
+    /** Journal size after which it is merged back into the snapshot. */
+    private static final long COMPACTION_THRESHOLD_BYTES = 1L << 20;
+
+    /** Header line prefix recording the last journal sequence included in a snapshot. */
+    private static final String SEQUENCE_HEADER = "# journal-seq ";
+
+    /** Suffix of the previous snapshot, kept as the last good state. */
+    private static final String BACKUP_SUFFIX = ".bak";
+
+    /** Suffix of the copy kept of a save file that failed verification. */
+    private static final String CORRUPT_SUFFIX = ".corrupt";
 
     private final Path filePath;
 
+    /** Non-null only in journal mode. */
+    private final TaskJournal journal;
+
+    private final SaveFormat format;
+
+    private final Durability durability;
+
+    private final StorageWriter writer;
+
+    /** Set while a journal compaction is queued, so that only one is queued at a time. */
+    private final AtomicBoolean isCompactionQueued = new AtomicBoolean();
+
+    private List<String> lostRecords = Collections.emptyList();
+
+    /** Set between {@link #beginBatch()} and {@link #commitBatch(List)}, while changes are held back. */
+    private boolean isBatching;
+
     /**
      * Constructs a Storage instance using the specified file path.
      *
@@ -26,15 +143,307 @@ public class Storage {
      * @throws IllegalArgumentException If filePathString is null or blank
      */
     public Storage(String filePathString) {
+        this(filePathString, false);
+    }
+
+    /**
+     * Constructs a Storage instance, optionally recording changes in an append-only journal.
+     *
+     * @param filePathString File path where tasks are stored (e.g. "data/tasks.txt")
+     * @param isJournaled    true to append single-task changes to a journal instead of
+     *                       rewriting the whole file
+     * @throws IllegalArgumentException If filePathString is null or blank
+     */
+    public Storage(String filePathString, boolean isJournaled) {
+        this(filePathString, isJournaled, SaveFormat.TEXT);
+    }
+
+    /**
+     * Constructs a Storage instance with an explicit save file format.
+     *
+     * @param filePathString File path where tasks are stored (e.g. "data/tasks.txt")
+     * @param isJournaled    true to append single-task changes to a journal instead of
+     *                       rewriting the whole file
+     * @param format         Format used when writing the save file
+     * @throws IllegalArgumentException If filePathString is null or blank, or format is null
+     */
+    public Storage(String filePathString, boolean isJournaled, SaveFormat format) {
+        this(filePathString, isJournaled, format, Durability.BUFFERED, DEFAULT_SYNC_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Constructs a Storage instance with explicit format and durability.
+     *
+     * @param filePathString     File path where tasks are stored (e.g. "data/tasks.txt")
+     * @param isJournaled        true to append single-task changes to a journal instead of
+     *                           rewriting the whole file
+     * @param format             Format used when writing the save file
+     * @param durability         When written data is forced to the storage device
+     * @param syncIntervalMillis Time between forces in {@link Durability#PERIODIC} mode
+     * @throws IllegalArgumentException If filePathString is null or blank, format or durability
+     *                                  is null, or syncIntervalMillis is not positive
+     */
+    public Storage(String filePathString, boolean isJournaled, SaveFormat format,
+            Durability durability, long syncIntervalMillis) {
         if (filePathString == null || filePathString.isBlank()) {
             throw new IllegalArgumentException("file path must not be null or empty");
         }
+        if (format == null || durability == null) {
+            throw new IllegalArgumentException("format and durability must not be null");
+        }
+        if (syncIntervalMillis <= 0) {
+            throw new IllegalArgumentException("sync interval must be positive");
+        }
         this.filePath = Paths.get(filePathString);
+        this.journal = isJournaled ? new TaskJournal(filePath) : null;
+        this.format = format;
+        this.durability = durability;
+        this.writer = new StorageWriter(durability, syncIntervalMillis, this::flushJournal);
         assert this.filePath != null : "filePath should not be null after creation";
     }
 
     /**
-     * Saves the list of tasks to disk.
+     * Persists a newly added task, which must already be the last element of tasks.
+     *
+     * @param tasks All tasks after the addition
+     * @param added The task that was added
+     * @return true once the change is queued; write failures surface via {@link #takeWriteFailure()}
+     */
+    public boolean saveAdded(List<Task> tasks, Task added) {
+        return record(tasks, TaskJournal.OP_ADD, toSaveString(added));
+    }
+
+    /**
+     * Persists the done status of the task at the given index.
+     *
+     * @param tasks All tasks after the change
+     * @param index 0-based index of the task whose status changed
+     * @return true once the change is queued; write failures surface via {@link #takeWriteFailure()}
+     */
+    public boolean saveStatusChange(List<Task> tasks, int index) {
+        Task task = tasks.get(index);
+        char op = task.isDone() ? TaskJournal.OP_MARK : TaskJournal.OP_UNMARK;
+        return record(tasks, op, TaskJournal.taskReference(task, index));
+    }
+
+    /**
+     * Persists the removal of a task.
+     *
+     * @param tasks   All tasks after the removal
+     * @param removed The task that was removed
+     * @param index   0-based index the task had before it was removed
+     * @return true once the change is queued; write failures surface via {@link #takeWriteFailure()}
+     */
+    public boolean saveDeleted(List<Task> tasks, Task removed, int index) {
+        return record(tasks, TaskJournal.OP_DELETE, TaskJournal.taskReference(removed, index));
+    }
+
+    /**
+     * Persists a change to several tasks at once, such as a ranged mark or
+     * delete. The whole list is queued as a single snapshot, so the batch is
+     * written once and is saved either completely or not at all.
+     *
+     * @param tasks All tasks after the change
+     * @return true once the change is queued; write failures surface via {@link #takeWriteFailure()}
+     */
+    public boolean saveBatch(List<Task> tasks) {
+        if (!isBatching) {
+            queueSnapshot(tasks);
+        }
+        return true;
+    }
+
+    /**
+     * Holds back every change saved from now on until {@link #commitBatch(List)},
+     * so that a batch of commands is written once, as a single snapshot, rather
+     * than once per command. Until then nothing reaches the save file or
+     * journal, so a batch that is abandoned leaves the saved tasks as they were.
+     */
+    public void beginBatch() {
+        isBatching = true;
+    }
+
+    /**
+     * Ends a batch begun with {@link #beginBatch()}, writing the tasks as one
+     * snapshot and waiting until it is written.
+     *
+     * @param tasks All tasks after the batch
+     * @return true if the snapshot was written, false if the write failed
+     */
+    public boolean commitBatch(List<Task> tasks) {
+        isBatching = false;
+        return save(tasks);
+    }
+
+    /**
+     * Returns whether a background write has failed since the last call, and
+     * clears the failure.
+     *
+     * @return true if some change may not have been saved
+     */
+    public boolean takeWriteFailure() {
+        return writer.takeFailure() != null;
+    }
+
+    /**
+     * Blocks until every queued change has been written to the save file or journal.
+     */
+    public void flush() {
+        writer.awaitFlushed();
+    }
+
+    /**
+     * Queues a journal record, or a full snapshot when not journaling, when the
+     * journal is due for compaction, or when an earlier write failed and the
+     * journal may therefore be missing a change.
+     */
+    private boolean record(List<Task> tasks, char op, String payload) {
+        if (isBatching) {
+            return true;
+        }
+        if (journal == null || writer.needsSnapshot()) {
+            queueSnapshot(tasks);
+            return true;
+        }
+
+        writer.submit(() -> {
+            Files.createDirectories(filePath.toAbsolutePath().getParent());
+            journal.append(op, payload);
+        });
+        if (journal.getSizeInBytes() > COMPACTION_THRESHOLD_BYTES && isCompactionQueued.compareAndSet(false, true)) {
+            queueSnapshot(tasks);
+        }
+        return true;
+    }
+
+    /**
+     * Queues a full snapshot. The list is copied here because later commands
+     * keep modifying it; a mark/unmark racing with the write may still show up
+     * in the snapshot, which is harmless because the journal replays the same
+     * change on top of it.
+     */
+    private void queueSnapshot(List<Task> tasks) {
+        List<Task> copy = new ArrayList<>(tasks);
+        writer.submitSnapshot(() -> {
+            Files.createDirectories(filePath.toAbsolutePath().getParent());
+            compactNow(copy);
+        }, failure -> isCompactionQueued.set(false));
+    }
+
+    private void flushJournal(boolean isSync) throws IOException {
+        if (journal != null) {
+            journal.flush(isSync);
+        }
+    }
+
+    /**
+     * Writes a snapshot to a temporary file and atomically moves it over the
+     * save file. The replaced snapshot becomes the backup, if asked. Unless
+     * the durability is {@link Durability#BUFFERED}, the snapshot is forced to
+     * the device before the move and the move itself after it, so a crash
+     * leaves either the old or the new snapshot complete.
+     *
+     * @param tasks            Tasks to write
+     * @param sequence         Last journal sequence contained in tasks, or -1 to omit the header
+     * @param isBackupReplaced false to keep the existing backup, as when the save file is damaged
+     * @throws IOException If the snapshot cannot be written
+     */
+    private void writeSnapshot(List<Task> tasks, long sequence, boolean isBackupReplaced) throws IOException {
+        Path tempPath = siblingPath(".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(tempPath.toFile())) {
+            OutputStream out = new BufferedOutputStream(fileOut, IO_BUFFER_SIZE);
+            if (format == SaveFormat.BINARY) {
+                BinaryTaskFormat.write(out, tasks, sequence);
+                out.flush();
+            } else {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                writeTextTasks(writer, tasks, sequence, true);
+                writer.flush();
+            }
+            if (durability != Durability.BUFFERED) {
+                fileOut.getFD().sync();
+            }
+        }
+
+        if (isBackupReplaced) {
+            keepBackup();
+        }
+        try {
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (durability != Durability.BUFFERED) {
+            syncParentDirectory();
+        }
+    }
+
+    /** Makes the current save file reachable as the backup, by hard link where supported. */
+    private void keepBackup() throws IOException {
+        if (!Files.exists(filePath)) {
+            return;
+        }
+        Path backupPath = siblingPath(BACKUP_SUFFIX);
+        Files.deleteIfExists(backupPath);
+        try {
+            Files.createLink(backupPath, filePath);
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            Files.copy(filePath, backupPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** Forces the rename itself to the device; not every platform allows opening a directory. */
+    private void syncParentDirectory() {
+        Path parent = filePath.toAbsolutePath().getParent();
+        try (FileChannel directory = FileChannel.open(parent, StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // Best effort only; the data itself has already been forced.
+        }
+    }
+
+    private Path siblingPath(String suffix) {
+        return filePath.resolveSibling(filePath.getFileName() + suffix);
+    }
+
+    /**
+     * Writes tasks as text lines.
+     *
+     * @param writer   Destination
+     * @param tasks    Tasks to write
+     * @param sequence Journal sequence for the header, or -1 to omit it
+     * @param isSnapshot true to prefix every task with its ID and append a checksum to every line,
+     *                   false for a plain export in the original format
+     */
+    private void writeTextTasks(Writer writer, List<Task> tasks, long sequence, boolean isSnapshot)
+            throws IOException {
+        if (sequence >= 0) {
+            writeLine(writer, SEQUENCE_HEADER + sequence, isSnapshot);
+        }
+        for (Task task : tasks) {
+            if (task == null) {
+                continue;
+            }
+            String serialized = isSnapshot ? toSaveString(task) : task.toFileString();
+            assert serialized != null : "toFileString() should not return null";
+
+            writeLine(writer, serialized, isSnapshot);
+        }
+    }
+
+    private static void writeLine(Writer writer, String line, boolean isSealed) throws IOException {
+        writer.write(isSealed ? RecordChecksum.seal(line) : line);
+        writer.write(System.lineSeparator());
+    }
+
+    /**
+     * Saves the list of tasks to disk and waits until the write has finished.
+     * In journal mode this also folds the journal into the save file.
+     * <p>
+     * If a later snapshot is written in place of this one, its outcome is
+     * returned. A failure of this save is reported only by the return value;
+     * an earlier failure of another write is left for {@link #takeWriteFailure()}.
+     * </p>
      *
      * @param tasks List of tasks to save
      * @return true if save succeeded, false on IOException
@@ -45,25 +454,20 @@ public class Storage {
             throw new IllegalArgumentException("tasks must not be null");
         }
 
-        try {
-            Files.createDirectories(filePath.getParent());
-
-            try (BufferedWriter writer = Files.newBufferedWriter(filePath)) {
-                for (Task task : tasks) {
-                    if (task == null) {
-                        continue;
-                    }
-                    String serialized = task.toFileString();
-                    assert serialized != null : "toFileString() should not return null";
-
-                    writer.write(serialized);
-                    writer.newLine();
-                }
+        List<Task> copy = new ArrayList<>(tasks);
+        AtomicBoolean isSaved = new AtomicBoolean();
+        writer.submitSnapshot(() -> {
+            Files.createDirectories(filePath.toAbsolutePath().getParent());
+            compactNow(copy);
+        }, failure -> {
+            if (failure == null) {
+                isSaved.set(true);
+            } else {
+                writer.clearFailure(failure);
             }
-            return true;
-        } catch (IOException e) {
-            return false;
-        }
+        });
+        writer.awaitFlushed();
+        return isSaved.get();
     }
 
     /**
@@ -71,13 +475,22 @@ public class Storage {
      * If the file does not exist, the directory is created, the file is created,
      * and an empty list is returned. If the file exists but cannot be read
      * (e.g. permissions, corrupted path), throws IOException so the caller can
-     * inform the user.
+     * inform the user. In journal mode, journal records newer than the save
+     * file are replayed on top of it.
+     * <p>
+     * Records that fail their checksum or cannot be parsed are listed by
+     * {@link #getLostRecords()}. In that case the save file is kept as
+     * {@code <file>.corrupt} and rewritten from what could be recovered; if no
+     * record of the save file survived, the previous snapshot is used instead.
+     * </p>
      *
      * @return Tasks loaded from the save file (never null)
      * @throws IOException if the file or directory cannot be created or read
      */
     public ArrayList<Task> load() throws IOException {
         ArrayList<Task> tasks = new ArrayList<>();
+        flush();
+        lostRecords = Collections.emptyList();
 
         if (filePath.getParent() != null) {
             Files.createDirectories(filePath.getParent());
@@ -88,19 +501,335 @@ public class Storage {
             return tasks;
         }
 
-        List<String> lines = Files.readAllLines(filePath);
-        assert lines != null : "readAllLines should not return null";
+        List<String> lost = new ArrayList<>();
+        List<DamagedRecord> damaged = new ArrayList<>();
+        boolean isTextFile = isTextFile(filePath);
+        long snapshotSequence = readSnapshotOrBackup(tasks, lost, damaged);
+        boolean isDamaged = !lost.isEmpty();
+        restoreFromBackup(tasks, damaged, lost);
+        if (journal != null) {
+            journal.replay(tasks, snapshotSequence, this::tryParseTask, lost);
+        }
 
-        for (String line : lines) {
-            Task parsed = tryParseTask(line);
-            if (parsed != null) {
-                tasks.add(parsed);
-            }
+        boolean isRenumbered = assignMissingIds(tasks);
+        if (isDamaged || !lost.isEmpty()) {
+            // The backup is the last good snapshot, so the repaired one must not replace it.
+            Files.copy(filePath, siblingPath(CORRUPT_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+            compactNow(tasks, false);
+            lostRecords = Collections.unmodifiableList(lost);
+        } else if (isTextFile && format == SaveFormat.BINARY && Files.size(filePath) > 0) {
+            Files.copy(filePath, siblingPath(TEXT_BACKUP_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+            compactNow(tasks);
+        } else if (isRenumbered) {
+            compactNow(tasks);
         }
 
         return tasks;
     }
 
+    /**
+     * Gives every task without an ID, or with an ID already used earlier in
+     * the list, a new ID above the highest one in use.
+     *
+     * @return true if any task was renumbered
+     */
+    private static boolean assignMissingIds(List<Task> tasks) {
+        int maxId = 0;
+        for (Task task : tasks) {
+            maxId = Math.max(maxId, task.getId());
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        boolean isChanged = false;
+        for (Task task : tasks) {
+            if (task.getId() <= 0 || !seen.add(task.getId())) {
+                task.assignId(++maxId);
+                seen.add(maxId);
+                isChanged = true;
+            }
+        }
+        return isChanged;
+    }
+
+    /**
+     * Returns the records that the last {@link #load()} could not recover.
+     *
+     * @return Descriptions naming the file and line or record of each lost record
+     */
+    public List<String> getLostRecords() {
+        return lostRecords;
+    }
+
+    /**
+     * Reads the save file. Falls back to the backup when the save file is
+     * damaged and none of its records survived, which is what a crash during
+     * a write without the atomic rename would leave behind.
+     *
+     * @return Journal sequence contained in whichever snapshot was used
+     */
+    private long readSnapshotOrBackup(List<Task> tasks, List<String> lost, List<DamagedRecord> damaged)
+            throws IOException {
+        Path backupPath = siblingPath(BACKUP_SUFFIX);
+        long snapshotSequence;
+        try {
+            snapshotSequence = readSnapshot(filePath, tasks, lost, damaged);
+        } catch (IOException e) {
+            if (!Files.exists(backupPath)) {
+                throw e;
+            }
+            lost.add(filePath.getFileName() + ": unreadable (" + e.getMessage() + ")");
+            snapshotSequence = 0;
+        }
+
+        if (!lost.isEmpty() && tasks.isEmpty() && Files.exists(backupPath)) {
+            System.out.println("Restoring tasks from the previous save: " + backupPath.getFileName());
+            damaged.clear();
+            snapshotSequence = readSnapshot(backupPath, tasks, lost, new ArrayList<>());
+        }
+        return snapshotSequence;
+    }
+
+    /**
+     * Puts back, from the backup, the tasks of damaged records that the
+     * backup still holds, each at the position its record had. A restored
+     * task is no longer reported as lost. The backup may predate the last
+     * changes to such a task, but that is better than losing it.
+     */
+    private void restoreFromBackup(List<Task> tasks, List<DamagedRecord> damaged, List<String> lost) {
+        Path backupPath = siblingPath(BACKUP_SUFFIX);
+        if (damaged.isEmpty() || !Files.exists(backupPath)) {
+            return;
+        }
+        List<Task> backupTasks = new ArrayList<>();
+        try {
+            readSnapshot(backupPath, backupTasks, new ArrayList<>(), new ArrayList<>());
+        } catch (IOException e) {
+            return;
+        }
+
+        Map<Integer, Task> backupById = new HashMap<>();
+        for (Task task : backupTasks) {
+            backupById.put(task.getId(), task);
+        }
+        Set<Integer> survivingIds = new HashSet<>();
+        for (Task task : tasks) {
+            survivingIds.add(task.getId());
+        }
+
+        int restored = 0;
+        for (DamagedRecord record : damaged) {
+            Task task = backupById.get(record.getId());
+            if (task == null || !survivingIds.add(record.getId())) {
+                continue;
+            }
+            System.out.println("Restoring from the previous save: " + record.getDescription());
+            tasks.add(record.getPosition() + restored, task);
+            lost.remove(record.getDescription());
+            restored++;
+        }
+    }
+
+    /**
+     * Writes the current tasks, including any journaled changes, as a text
+     * save file at the given path. Useful for inspecting a binary save file.
+     *
+     * @param targetPathString Path of the text file to write
+     * @throws IOException If the save file cannot be read or the target cannot be written
+     */
+    public void exportAsText(String targetPathString) throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        flush();
+        if (Files.exists(filePath)) {
+            List<String> ignored = new ArrayList<>();
+            long snapshotSequence = readSnapshot(filePath, tasks, ignored, new ArrayList<>());
+            if (journal != null) {
+                journal.replay(tasks, snapshotSequence, this::tryParseTask, ignored);
+            }
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(targetPathString))) {
+            writeTextTasks(writer, tasks, -1, false);
+        }
+    }
+
+    private static boolean isTextFile(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] head = in.readNBytes(BinaryTaskFormat.magicLength());
+            return !BinaryTaskFormat.hasMagic(head, head.length);
+        }
+    }
+
+    /**
+     * Reads a snapshot file in whichever format it is in.
+     *
+     * @param path  Snapshot to read
+     * @param tasks List that receives the loaded tasks
+     * @param lost    Receives a description of every record that could not be read
+     * @param damaged Receives the lost records that still name their task
+     * @return Journal sequence recorded in the snapshot
+     */
+    private long readSnapshot(Path path, List<Task> tasks, List<String> lost, List<DamagedRecord> damaged)
+            throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path), IO_BUFFER_SIZE)) {
+            in.mark(BinaryTaskFormat.magicLength());
+            byte[] head = in.readNBytes(BinaryTaskFormat.magicLength());
+            in.reset();
+
+            if (BinaryTaskFormat.hasMagic(head, head.length)) {
+                List<String> lostInFile = new ArrayList<>();
+                List<DamagedRecord> damagedInFile = new ArrayList<>();
+                long sequence = BinaryTaskFormat.read(in, tasks, lostInFile, damagedInFile);
+                for (String record : lostInFile) {
+                    lost.add(path.getFileName() + " " + record);
+                }
+                for (DamagedRecord record : damagedInFile) {
+                    damaged.add(new DamagedRecord(record.getId(), record.getPosition(),
+                            path.getFileName() + " " + record.getDescription()));
+                }
+                return sequence;
+            }
+            return readTextTasks(path, in, tasks, lost, damaged);
+        }
+    }
+
+    /**
+     * Reads a text snapshot. Files written before checksums existed have no
+     * sealed line at all, and their lines are read as they are. Once a sealed
+     * line is seen the file is known to be checksummed, so every unsealed line
+     * in it, such as one cut short, is lost, including any taken on trust before.
+     */
+    private long readTextTasks(Path path, InputStream in, List<Task> tasks, List<String> lost,
+            List<DamagedRecord> damaged) throws IOException {
+        long snapshotSequence = 0;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        boolean isChecksummed = false;
+        List<DamagedRecord> takenOnTrust = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            String description = path.getFileName() + " line " + lineNumber + ": " + line;
+
+            boolean isSealed = RecordChecksum.isSealed(line);
+            if (isSealed && !isChecksummed) {
+                isChecksummed = true;
+                for (int i = takenOnTrust.size() - 1; i >= 0; i--) {
+                    tasks.remove(takenOnTrust.get(i).getPosition());
+                }
+                for (int i = 0; i < takenOnTrust.size(); i++) {
+                    DamagedRecord record = takenOnTrust.get(i);
+                    System.out.println("Ignoring data without a checksum: " + record.getDescription());
+                    lost.add(record.getDescription());
+                    if (record.getId() > 0) {
+                        damaged.add(new DamagedRecord(record.getId(), record.getPosition() - i,
+                                record.getDescription()));
+                    }
+                }
+            }
+
+            if (!isSealed) {
+                if (isChecksummed) {
+                    System.out.println("Ignoring data without a checksum: " + description);
+                    reportLost(description, line, tasks.size(), lost, damaged);
+                } else if (line.startsWith(SEQUENCE_HEADER)) {
+                    snapshotSequence = parseSequenceHeader(line);
+                } else {
+                    Task parsed = tryParseTask(line);
+                    if (parsed != null) {
+                        takenOnTrust.add(new DamagedRecord(claimedId(line), tasks.size(), description));
+                        tasks.add(parsed);
+                    } else {
+                        reportLost(description, line, tasks.size(), lost, damaged);
+                    }
+                }
+                continue;
+            }
+
+            String record = RecordChecksum.open(line);
+            if (record == null) {
+                System.out.println("Ignoring corrupted data: " + line);
+            } else if (record.startsWith(SEQUENCE_HEADER)) {
+                snapshotSequence = parseSequenceHeader(record);
+                continue;
+            } else {
+                Task parsed = tryParseTask(record);
+                if (parsed != null) {
+                    tasks.add(parsed);
+                    continue;
+                }
+            }
+            reportLost(description, line, tasks.size(), lost, damaged);
+        }
+        return snapshotSequence;
+    }
+
+    /**
+     * Adds a line that could not be read to the lost records, and to the
+     * damaged ones if it still names its task.
+     *
+     * @param description Description of the line as reported in the lost records
+     * @param line        The line itself
+     * @param position    Position its task would have had among the tasks read
+     */
+    private static void reportLost(String description, String line, int position, List<String> lost,
+            List<DamagedRecord> damaged) {
+        lost.add(description);
+        int claimedId = claimedId(line);
+        if (claimedId > 0) {
+            damaged.add(new DamagedRecord(claimedId, position, description));
+        }
+    }
+
+    /** Returns the ID a damaged text record starts with, or 0 if it does not start with one. */
+    private static int claimedId(String line) {
+        int idEnd = line.indexOf(DELIMITER);
+        if (idEnd <= 0 || idEnd > String.valueOf(Integer.MAX_VALUE).length()) {
+            return 0;
+        }
+        for (int i = 0; i < idEnd; i++) {
+            if (!Character.isDigit(line.charAt(i))) {
+                return 0;
+            }
+        }
+        long id = Long.parseLong(line.substring(0, idEnd));
+        return id <= Integer.MAX_VALUE ? (int) id : 0;
+    }
+
+    /** Writes a snapshot of tasks in the configured format and drops journal records it covers. */
+    private void compactNow(List<Task> tasks) throws IOException {
+        compactNow(tasks, true);
+    }
+
+    /**
+     * Writes a snapshot of tasks and drops the journal records it covers,
+     * optionally leaving the backup as it is instead of replacing it with the current save file.
+     */
+    private void compactNow(List<Task> tasks, boolean isBackupReplaced) throws IOException {
+        if (journal == null) {
+            writeSnapshot(tasks, -1, isBackupReplaced);
+            return;
+        }
+        writeSnapshot(tasks, journal.getLastSequence(), isBackupReplaced);
+        journal.discard();
+    }
+
+    private long parseSequenceHeader(String line) {
+        try {
+            return Long.parseLong(line.substring(SEQUENCE_HEADER.length()).trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Ignoring corrupted data: " + line);
+            return 0;
+        }
+    }
+
+    /** Returns the save string of a task, prefixed with its ID once it has one. */
+    private static String toSaveString(Task task) {
+        String fileString = task.toFileString();
+        return task.getId() > 0 ? task.getId() + DELIMITER + fileString : fileString;
+    }
+
     /**
      * Attempts to parse a line into a Task.
      * Returns null if the line is corrupted or cannot be parsed.
@@ -123,6 +852,9 @@ public class Storage {
 
     /**
      * Parses a single line from the save file into a Task object.
+     * The line may start with the task's ID as an extra leading field.
+     * Fields are located with a single left-to-right scan for the separator,
+     * so no regex or intermediate array is created per line.
      *
      * @param line The string line representing a task in the save file
      * @return The corresponding Task object (Todo, Deadline, or Event)
@@ -131,20 +863,41 @@ public class Storage {
     private Task parseTask(String line) {
         assert line != null : "line passed to parseTask should not be null";
 
-        String[] parts = line.split(DELIMITER);
+        if (!line.isEmpty() && Character.isDigit(line.charAt(0))) {
+            int idEnd = line.indexOf(DELIMITER);
+            if (idEnd < 0) {
+                throw new IllegalArgumentException("Invalid save format: " + line);
+            }
+            int id;
+            try {
+                id = Integer.parseInt(line, 0, idEnd, 10);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid task ID: " + line);
+            }
+            Task task = parseTask(line.substring(idEnd + DELIMITER.length()));
+            task.assignId(id);
+            return task;
+        }
+
+        int typeEnd = line.indexOf(DELIMITER);
+        int doneEnd = typeEnd < 0 ? -1 : line.indexOf(DELIMITER, typeEnd + DELIMITER.length());
+        if (doneEnd < 0) {
+            throw new IllegalArgumentException("Invalid save format: " + line);
+        }
 
-        if (parts.length < 3) {
+        int doneStart = typeEnd + DELIMITER.length();
+        int descStart = doneEnd + DELIMITER.length();
+        int descEnd = fieldEnd(line, descStart);
+        if (descStart >= descEnd) {
             throw new IllegalArgumentException("Invalid save format: " + line);
         }
 
-        String type = parts[0];
-        boolean done = parts[1].equals("1");
-        String desc = parts[2];
+        boolean done = doneEnd - doneStart == 1 && line.charAt(doneStart) == '1';
+        String desc = line.substring(descStart, descEnd);
 
-        assert type != null : "Task type should not be null";
         assert desc != null : "Task description should not be null";
 
-        Task task = createTaskFromParts(type, desc, parts);
+        Task task = createTaskFromFields(line, typeEnd, desc, descEnd);
 
         if (done) {
             task.markAsDone();
@@ -154,35 +907,67 @@ public class Storage {
     }
 
     /**
-     * Creates a Task instance based on the parsed fields.
+     * Creates a Task instance based on the scanned fields.
      *
-     * @param type Task type identifier (T, D, E)
-     * @param desc Task description
-     * @param parts Full split parts array
+     * @param line    Full save line
+     * @param typeEnd End index of the type field (T, D, E)
+     * @param desc    Task description
+     * @param descEnd End index of the description field
      * @return A Task instance
      * @throws IllegalArgumentException If fields are missing or type is unknown
      */
-    private Task createTaskFromParts(String type, String desc, String[] parts) {
+    private Task createTaskFromFields(String line, int typeEnd, String desc, int descEnd) {
+        char type = typeEnd == 1 ? line.charAt(0) : '?';
+
         switch (type) {
-            case "T":
+            case 'T':
                 return new ToDos(desc);
 
-            case "D":
-                if (parts.length < 4) {
+            case 'D':
+                if (descEnd == line.length()) {
                     throw new IllegalArgumentException("Deadline missing by-date");
                 }
-                return new Deadlines(desc, LocalDateTime.parse(parts[3]));
+                int byStart = descEnd + DELIMITER.length();
+                int byEnd = fieldEnd(line, byStart);
+                LocalDateTime by = parseDateTime(line, byStart, byEnd);
+                if (byEnd == line.length()) {
+                    return new Deadlines(desc, by);
+                }
+                return new RecurringDeadlines(desc, by, parseRecurrence(line, byEnd));
 
-            case "E":
-                if (parts.length < 5) {
+            case 'E':
+                int fromStart = descEnd + DELIMITER.length();
+                int fromEnd = descEnd == line.length() ? -1 : fieldEnd(line, fromStart);
+                if (fromEnd < 0 || fromEnd == line.length()) {
                     throw new IllegalArgumentException("Event missing from/to dates");
                 }
-                LocalDateTime fromDate = LocalDateTime.parse(parts[3]);
-                LocalDateTime toDate = LocalDateTime.parse(parts[4]);
-                return new Events(desc, fromDate, toDate);
+                int toStart = fromEnd + DELIMITER.length();
+                int toEnd = fieldEnd(line, toStart);
+                LocalDateTime fromDate = parseDateTime(line, fromStart, fromEnd);
+                LocalDateTime toDate = parseDateTime(line, toStart, toEnd);
+                if (toEnd == line.length()) {
+                    return new Events(desc, fromDate, toDate);
+                }
+                return new RecurringEvents(desc, fromDate, toDate, parseRecurrence(line, toEnd));
 
             default:
-                throw new IllegalArgumentException("Unknown task type: " + type);
+                throw new IllegalArgumentException("Unknown task type: " + line.substring(0, typeEnd));
         }
     }
+
+    /** Parses the optional repeat rule field that follows the separator at the given index. */
+    private static Recurrence parseRecurrence(String line, int separator) {
+        int ruleStart = separator + DELIMITER.length();
+        return Recurrence.decode(line.substring(ruleStart, fieldEnd(line, ruleStart)));
+    }
+
+    /** Returns the index where the field starting at start ends: the next separator or the end of line. */
+    private static int fieldEnd(String line, int start) {
+        int end = line.indexOf(DELIMITER, start);
+        return end < 0 ? line.length() : end;
+    }
+
+    private static LocalDateTime parseDateTime(String line, int start, int end) {
+        return DateTimeCodec.parseIso(line, start, end);
+    }
 }
@@ -0,0 +1,283 @@
+package vex;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Background thread that performs all disk writes for a {@link Storage}.
+ * <p>
+ * Callers only enqueue work and return immediately. The writer drains every
+ * queued job in one batch and flushes once per batch (group commit). Within a
+ * batch, a full snapshot makes all jobs queued before it redundant, so those
+ * are skipped; a skipped snapshot is completed with the outcome of the one
+ * that covered it. Failures are kept until {@link #takeFailure()} reports them.
+ * </p>
+ */
+class StorageWriter {
+
+    /**
+     * A unit of disk work run on the writer thread.
+     */
+    interface Job {
+        /**
+         * Performs the write.
+         *
+         * @throws IOException If the write fails
+         */
+        void run() throws IOException;
+    }
+
+    /**
+     * Told the outcome of a snapshot once it has been written, or once a later
+     * snapshot that covers it has been written in its place.
+     */
+    interface Completion {
+        /**
+         * Called on the writer thread after the snapshot, or the one that replaced it, has run.
+         *
+         * @param failure Why the write failed, or null if it succeeded
+         */
+        void complete(IOException failure);
+    }
+
+    /**
+     * Flushes what the jobs of a batch wrote, optionally forcing it to the device.
+     */
+    interface Flusher {
+        /**
+         * Flushes buffered writes.
+         *
+         * @param isSync true to also force the data to the storage device
+         * @throws IOException If flushing fails
+         */
+        void flush(boolean isSync) throws IOException;
+    }
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private final BlockingQueue<QueuedJob> queue = new LinkedBlockingQueue<>();
+    private final AtomicReference<IOException> unreportedFailure = new AtomicReference<>();
+    private final Storage.Durability durability;
+    private final long syncIntervalMillis;
+    private final Flusher flusher;
+
+    private Thread thread;
+    private volatile boolean needsSnapshot;
+
+    /**
+     * Creates a writer. The thread is started on the first submitted job.
+     *
+     * @param durability         When written data is forced to the device
+     * @param syncIntervalMillis Maximum time between forces in {@link Storage.Durability#PERIODIC} mode
+     * @param flusher            Flushes the data written by a batch
+     */
+    StorageWriter(Storage.Durability durability, long syncIntervalMillis, Flusher flusher) {
+        this.durability = durability;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.flusher = flusher;
+    }
+
+    /**
+     * Queues an incremental write such as a journal record.
+     *
+     * @param job Write to perform
+     */
+    void submit(Job job) {
+        enqueue(new QueuedJob(job, null, null));
+    }
+
+    /**
+     * Queues a write of the complete state. Everything queued before it is
+     * skipped if it has not been written yet.
+     *
+     * @param job        Write to perform
+     * @param completion Told the outcome of this snapshot, or of the later one written instead
+     */
+    void submitSnapshot(Job job, Completion completion) {
+        enqueue(new QueuedJob(job, completion, null));
+    }
+
+    /**
+     * Blocks until every job submitted so far has been written and flushed.
+     */
+    void awaitFlushed() {
+        if (thread == null) {
+            return;
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        enqueue(new QueuedJob(null, null, latch));
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns true if an earlier write failed and the state on disk may be
+     * missing changes until the next successful snapshot.
+     *
+     * @return true if a full snapshot is needed
+     */
+    boolean needsSnapshot() {
+        return needsSnapshot;
+    }
+
+    /**
+     * Returns and clears the first write failure not yet reported.
+     *
+     * @return The failure, or null if every write since the last call succeeded
+     */
+    IOException takeFailure() {
+        return unreportedFailure.getAndSet(null);
+    }
+
+    /**
+     * Clears a failure that has been reported some other way, leaving any
+     * earlier failure in place for {@link #takeFailure()}.
+     *
+     * @param failure Failure passed to a {@link Completion}
+     */
+    void clearFailure(IOException failure) {
+        unreportedFailure.compareAndSet(failure, null);
+    }
+
+    private synchronized void enqueue(QueuedJob job) {
+        if (thread == null) {
+            thread = new Thread(this::runLoop, "vex-storage-writer");
+            thread.setDaemon(true);
+            thread.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(this::flushOnShutdown));
+        }
+        queue.add(job);
+    }
+
+    private void flushOnShutdown() {
+        CountDownLatch latch = new CountDownLatch(1);
+        queue.add(new QueuedJob(null, null, latch));
+        try {
+            latch.await(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runLoop() {
+        List<QueuedJob> batch = new ArrayList<>();
+        long lastSyncMillis = System.currentTimeMillis();
+        boolean hasUnsyncedWrites = false;
+
+        while (true) {
+            try {
+                QueuedJob first = hasUnsyncedWrites && durability == Storage.Durability.PERIODIC
+                        ? queue.poll(Math.max(1, lastSyncMillis + syncIntervalMillis - System.currentTimeMillis()),
+                                TimeUnit.MILLISECONDS)
+                        : queue.take();
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            hasUnsyncedWrites |= runBatch(batch);
+
+            boolean isSyncDue = durability == Storage.Durability.SYNC
+                    || (durability == Storage.Durability.PERIODIC
+                    && System.currentTimeMillis() - lastSyncMillis >= syncIntervalMillis);
+            try {
+                flusher.flush(hasUnsyncedWrites && isSyncDue);
+                if (isSyncDue || durability == Storage.Durability.BUFFERED) {
+                    hasUnsyncedWrites = false;
+                    lastSyncMillis = System.currentTimeMillis();
+                }
+            } catch (IOException e) {
+                recordFailure(e);
+            }
+
+            for (QueuedJob job : batch) {
+                if (job.barrier != null) {
+                    job.barrier.countDown();
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Runs the jobs of one batch, skipping those superseded by a later snapshot.
+     * Skipped snapshots are completed with the outcome of the last one.
+     *
+     * @return true if anything was written
+     */
+    private boolean runBatch(List<QueuedJob> batch) {
+        int lastSnapshot = -1;
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.get(i).isSnapshot()) {
+                lastSnapshot = i;
+            }
+        }
+
+        boolean hasWritten = false;
+        for (int i = Math.max(lastSnapshot, 0); i < batch.size(); i++) {
+            QueuedJob job = batch.get(i);
+            if (job.job == null) {
+                continue;
+            }
+            IOException failure = null;
+            try {
+                job.job.run();
+                hasWritten = true;
+                if (job.isSnapshot()) {
+                    needsSnapshot = false;
+                }
+            } catch (IOException e) {
+                recordFailure(e);
+                failure = e;
+            }
+            if (i == lastSnapshot) {
+                for (int j = 0; j < lastSnapshot; j++) {
+                    if (batch.get(j).isSnapshot()) {
+                        batch.get(j).completion.complete(failure);
+                    }
+                }
+            }
+            if (job.isSnapshot()) {
+                job.completion.complete(failure);
+            }
+        }
+        return hasWritten;
+    }
+
+    private void recordFailure(IOException e) {
+        needsSnapshot = true;
+        unreportedFailure.compareAndSet(null, e);
+    }
+
+    /**
+     * A queued job; snapshots carry a completion, and jobs without work only
+     * carry a barrier released after the batch is flushed.
+     */
+    private static final class QueuedJob {
+        private final Job job;
+        private final Completion completion;
+        private final CountDownLatch barrier;
+
+        QueuedJob(Job job, Completion completion, CountDownLatch barrier) {
+            this.job = job;
+            this.completion = completion;
+            this.barrier = barrier;
+        }
+
+        boolean isSnapshot() {
+            return completion != null;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package vex;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * Represents a generic task in the Vex application.
@@ -14,6 +15,9 @@ public class Task {
     /** Whether the task is marked as completed. */
     private boolean isDone;
 
+    /** Stable ID that survives reordering and restarts; 0 until the task joins a TaskList. */
+    private int id;
+
     /**
      * Constructs a Task with the given description.
      * The task is initially marked as not done.
@@ -38,6 +42,28 @@ public class Task {
         return description;
     }
 
+    /**
+     * Returns the stable ID of the task.
+     *
+     * @return Task ID, or 0 if none has been assigned yet
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the stable ID of the task. Called by {@link TaskList} and {@link Storage}.
+     *
+     * @param id Positive task ID
+     * @throws IllegalArgumentException If id is not positive
+     */
+    void assignId(int id) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Task ID must be positive.");
+        }
+        this.id = id;
+    }
+
     /**
      * Returns whether the task is marked as done.
      *
@@ -70,6 +96,28 @@ public class Task {
         isDone = false;
     }
 
+    /**
+     * Returns an independent copy of this task with the same ID and status.
+     * Subclasses override this to copy their additional fields.
+     *
+     * @return Copy of the task
+     */
+    public Task copy() {
+        return copyStateTo(new Task(description));
+    }
+
+    /**
+     * Copies the done status and ID of this task onto a freshly created copy.
+     *
+     * @param copy New task with the same description
+     * @return copy, for chaining
+     */
+    protected Task copyStateTo(Task copy) {
+        copy.isDone = isDone;
+        copy.id = id;
+        return copy;
+    }
+
     /**
      * Returns a user-friendly string representation of the task.
      *
@@ -90,6 +138,36 @@ public class Task {
         return String.format("T | %d | %s", isDone ? 1 : 0, description);
     }
 
+    /**
+     * Returns the time this task is due or starts, used to order reminders.
+     * The default implementation returns null.
+     *
+     * @return null for tasks without date information
+     */
+    public LocalDateTime getScheduledTime() {
+        return null;
+    }
+
+    /**
+     * Returns the first date this task occupies on the calendar.
+     * The default implementation returns null.
+     *
+     * @return null for tasks without date information
+     */
+    public LocalDate getStartDate() {
+        return null;
+    }
+
+    /**
+     * Returns the last date this task occupies on the calendar.
+     * The default implementation returns null.
+     *
+     * @return null for tasks without date information
+     */
+    public LocalDate getEndDate() {
+        return null;
+    }
+
     /**
      * Checks whether this task occurs on the given date.
      * The default implementation returns false.
@@ -102,14 +180,90 @@ public class Task {
     }
 
     /**
-     * Checks whether this task is due within the given date range.
+     * Checks whether this task is due within the given number of days from today.
      * The default implementation returns false.
      *
-     * @param startDate Start of the date range (inclusive)
-     * @param days      Number of days in the range
+     * @param todayDate First date of the range (inclusive)
+     * @param days      Number of days after todayDate that the range extends to (inclusive)
      * @return false for tasks without date information
      */
     public boolean isDueWithin(LocalDate todayDate, int days) {
         return false;
     }
+
+    /**
+     * Checks whether this task occurs on at least one day of the inclusive date range.
+     *
+     * @param from First date of the range
+     * @param to   Last date of the range
+     * @return false for tasks without date information
+     */
+    public boolean occursBetween(LocalDate from, LocalDate to) {
+        LocalDate start = getStartDate();
+        return start != null && !start.isAfter(to) && !getEndDate().isBefore(from);
+    }
+
+    /**
+     * Checks whether this task is due or starts in the half-open window [from, to).
+     *
+     * @param from Start of the window (inclusive)
+     * @param to   End of the window (exclusive)
+     * @return false for tasks without date information
+     */
+    public boolean isScheduledBetween(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime time = getScheduledTime();
+        return time != null && !time.isBefore(from) && time.isBefore(to);
+    }
+
+    /**
+     * Returns the rule this task repeats by.
+     * The default implementation returns null.
+     *
+     * @return null for tasks that occur once
+     */
+    public Recurrence getRecurrence() {
+        return null;
+    }
+
+    /**
+     * Returns true if this task repeats by a {@link Recurrence} rule.
+     *
+     * @return false for tasks that occur once
+     */
+    public boolean isRecurring() {
+        return getRecurrence() != null;
+    }
+
+    /**
+     * Returns the first occurrence of this task that is due or starts at or
+     * after the given time. A task that does not repeat has one occurrence: itself.
+     *
+     * @param time Earliest time wanted
+     * @return This task
+     */
+    public Task getOccurrenceStartingFrom(LocalDateTime time) {
+        return this;
+    }
+
+    /**
+     * Returns the first occurrence of this task that has not ended before the
+     * given time. A task that does not repeat has one occurrence: itself.
+     *
+     * @param time Earliest time wanted
+     * @return This task
+     */
+    public Task getOccurrenceEndingFrom(LocalDateTime time) {
+        return this;
+    }
+
+    /**
+     * Checks whether this task is unfinished and its deadline or end time has passed.
+     * The default implementation returns false.
+     *
+     * @param now Current time
+     * @return false for tasks without date information
+     */
+    public boolean isOverdue(LocalDateTime now) {
+        return false;
+    }
 }
@@ -0,0 +1,269 @@
+package vex;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Append-only log of task mutations stored next to the snapshot file.
+ * Each line is one record of the form {@code <seq> <op> <payload>}, where op is
+ * A (add, payload is the task's save string), M / U (mark / unmark) or X
+ * (delete), sealed with a {@link RecordChecksum}. The payload of M, U and X
+ * names the task by ID, such as {@code #12}, so that it does not depend on
+ * the positions of other tasks; tasks without an ID, and journals written
+ * before IDs existed, give the 0-based index instead.
+ * <p>
+ * Appends are buffered; the owner decides when to {@link #flush(boolean)}.
+ * </p>
+ */
+class TaskJournal {
+
+    static final char OP_ADD = 'A';
+    static final char OP_MARK = 'M';
+    static final char OP_UNMARK = 'U';
+    static final char OP_DELETE = 'X';
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String ID_PREFIX = "#";
+
+    private final Path journalPath;
+
+    private FileOutputStream fileOut;
+    private BufferedWriter writer;
+    private volatile long sizeInBytes;
+    private long nextSequence = 1;
+
+    /**
+     * Creates a journal that lives beside the given snapshot file.
+     *
+     * @param snapshotPath Path of the snapshot the journal belongs to
+     */
+    TaskJournal(Path snapshotPath) {
+        this.journalPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + JOURNAL_SUFFIX);
+    }
+
+    /**
+     * Returns the sequence number of the most recently written record.
+     *
+     * @return Last used sequence number, 0 if nothing has been written
+     */
+    long getLastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Returns the number of bytes currently in the active journal file.
+     *
+     * @return Journal size in bytes
+     */
+    long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * Returns the payload of a mark, unmark or delete record for a task.
+     *
+     * @param task  The task changed
+     * @param index Its 0-based index, used only if it has no ID
+     * @return The task's ID prefixed with '#', or its index
+     */
+    static String taskReference(Task task, int index) {
+        return task.getId() > 0 ? ID_PREFIX + task.getId() : String.valueOf(index);
+    }
+
+    /**
+     * Appends a single record to the write buffer.
+     *
+     * @param op      Operation code
+     * @param payload Operation payload
+     * @throws IOException If the journal cannot be written
+     */
+    void append(char op, String payload) throws IOException {
+        if (writer == null) {
+            fileOut = new FileOutputStream(journalPath.toFile(), true);
+            writer = new BufferedWriter(new OutputStreamWriter(fileOut, StandardCharsets.UTF_8));
+            sizeInBytes = Files.size(journalPath);
+        }
+
+        String record = RecordChecksum.seal(nextSequence + " " + op + " " + payload);
+        writer.write(record);
+        writer.newLine();
+
+        nextSequence++;
+        sizeInBytes += record.length() + 1;
+    }
+
+    /**
+     * Hands buffered records to the operating system and optionally forces them to the device.
+     *
+     * @param isSync true to fsync the journal file
+     * @throws IOException If flushing fails
+     */
+    void flush(boolean isSync) throws IOException {
+        if (writer == null) {
+            return;
+        }
+        writer.flush();
+        if (isSync) {
+            fileOut.getFD().sync();
+        }
+    }
+
+    /**
+     * Deletes the journal. Only safe once the snapshot holds every recorded mutation.
+     *
+     * @throws IOException If the file cannot be deleted
+     */
+    void discard() throws IOException {
+        close();
+        Files.deleteIfExists(journalPath);
+        sizeInBytes = 0;
+    }
+
+    /**
+     * Replays every record newer than the snapshot onto the given list.
+     * Records naming a task by ID find it through the ID-to-slot map of a
+     * {@link TaskSlots}; older records give its position. Each record builds on
+     * the ones before it, so replay stops at the first record that fails its
+     * checksum, has none (as a line cut short by a crash does), names a task
+     * that is not there, or does not directly follow the previous one; that
+     * record and every later one are reported as lost.
+     *
+     * @param tasks        Tasks loaded from the snapshot, modified in place
+     * @param baseSequence Sequence number already contained in the snapshot
+     * @param parser       Converts an add payload into a Task, or returns null if corrupted
+     * @param lostRecords  Receives a description of every record that could not be applied
+     * @throws IOException If the journal file cannot be read
+     */
+    void replay(List<Task> tasks, long baseSequence, Function<String, Task> parser,
+            List<String> lostRecords) throws IOException {
+        long last = baseSequence;
+        if (Files.exists(journalPath)) {
+            TaskSlots slots = new TaskSlots(new ObjectTaskStore(false));
+            tasks.forEach(slots::add);
+            try (BufferedReader reader = Files.newBufferedReader(journalPath)) {
+                String line;
+                int lineNumber = 0;
+                boolean isBroken = false;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (!isBroken) {
+                        long sequence = applyRecord(line, slots, baseSequence, last, parser);
+                        isBroken = sequence < 0;
+                        last = Math.max(last, sequence);
+                    }
+                    if (isBroken) {
+                        lostRecords.add(journalPath.getFileName() + " line " + lineNumber + ": " + line);
+                    }
+                }
+            }
+            List<Task> replayed = new ArrayList<>(slots.asList());
+            tasks.clear();
+            tasks.addAll(replayed);
+        }
+        nextSequence = last + 1;
+        sizeInBytes = Files.exists(journalPath) ? Files.size(journalPath) : 0;
+    }
+
+    /**
+     * Applies one journal line and returns its sequence number, or -1 if the
+     * line is corrupted or out of order. Records already covered by the snapshot are skipped.
+     */
+    private long applyRecord(String line, TaskSlots tasks, long baseSequence, long lastSequence,
+            Function<String, Task> parser) {
+        String record = RecordChecksum.open(line);
+        if (record == null) {
+            System.out.println("Ignoring corrupted journal record: " + line);
+            return -1;
+        }
+
+        int firstSpace = record.indexOf(' ');
+        if (firstSpace <= 0 || record.length() < firstSpace + 3 || record.charAt(firstSpace + 2) != ' ') {
+            System.out.println("Ignoring corrupted journal record: " + line);
+            return -1;
+        }
+
+        long sequence;
+        try {
+            sequence = Long.parseLong(record.substring(0, firstSpace));
+        } catch (NumberFormatException e) {
+            System.out.println("Ignoring corrupted journal record: " + line);
+            return -1;
+        }
+        if (sequence <= baseSequence) {
+            return sequence;
+        }
+        if (sequence != lastSequence + 1) {
+            System.out.println("Ignoring out-of-order journal record: " + line);
+            return -1;
+        }
+
+        char op = record.charAt(firstSpace + 1);
+        String payload = record.substring(firstSpace + 3);
+
+        try {
+            switch (op) {
+            case OP_ADD:
+                Task task = parser.apply(payload);
+                if (task == null) {
+                    return -1;
+                }
+                tasks.add(task);
+                break;
+            case OP_MARK:
+                tasks.setDone(resolveIndex(payload, tasks), true);
+                break;
+            case OP_UNMARK:
+                tasks.setDone(resolveIndex(payload, tasks), false);
+                break;
+            case OP_DELETE:
+                tasks.remove(resolveIndex(payload, tasks));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown journal op: " + op);
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            System.out.println("Ignoring corrupted journal record: " + line);
+            return -1;
+        }
+        return sequence;
+    }
+
+    /**
+     * Returns the current index of the task a record names, by ID or by position.
+     *
+     * @throws IndexOutOfBoundsException If no such task is in the list
+     * @throws NumberFormatException     If the payload is not a reference
+     */
+    private static int resolveIndex(String payload, TaskSlots tasks) {
+        if (!payload.startsWith(ID_PREFIX)) {
+            return Integer.parseInt(payload);
+        }
+        int index = tasks.indexOfId(Integer.parseInt(payload.substring(ID_PREFIX.length())));
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("No task with ID " + payload);
+        }
+        return index;
+    }
+
+    /**
+     * Closes the open journal writer, if any.
+     *
+     * @throws IOException If the writer cannot be closed
+     */
+    void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+            fileOut = null;
+        }
+    }
+}
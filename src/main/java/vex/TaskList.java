@@ -1,68 +1,558 @@
 package vex;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Represents a list of tasks.
  * Provides methods to manipulate the list such as adding, deleting, and
  * retrieving tasks.
+ * <p>
+ * Changes to tasks in the list, including marking them, should go through
+ * this class so that its search and date indexes, and any reminders, stay in sync.
+ * </p>
+ * <p>
+ * In the {@link Layout#COLUMNAR} layout, the Task objects returned by this
+ * class are copies created on access, so changing them directly has no effect
+ * on the list.
+ * </p>
+ * <p>
+ * A concurrent list may be read from any thread while one thread changes it.
+ * Every change publishes a new immutable {@link Snapshot}, which shares
+ * structure with the previous one, and all reads go to the latest snapshot
+ * without taking a lock. Queries then scan the snapshot instead of using the
+ * indexes, which writers maintain without coordinating with readers.
+ * </p>
+ * <p>
+ * Scans over lists of at least {@link #setParallelThreshold(int) the parallel
+ * threshold} are split across the common fork-join pool; results keep list order.
+ * </p>
+ * <p>
+ * Queries return lazy {@link TaskView}s that do not copy the matching tasks.
+ * Results are cached until the list next changes.
+ * </p>
+ * <p>
+ * A list created with a history depth keeps that many earlier versions for
+ * {@link #undo()} and {@link #redo()}. Versions are snapshots sharing
+ * structure with each other, so every change costs O(log n) extra memory
+ * rather than a copy of the list.
+ * </p>
  */
 public class TaskList {
 
-    private final ArrayList<Task> tasks;
+    /**
+     * How the tasks of a list are kept in memory.
+     */
+    public enum Layout {
+        /** Each task is kept as the Task object it was added as. */
+        OBJECTS,
+        /** Tasks are kept in primitive columns and materialized on access, for very large lists. */
+        COLUMNAR
+    }
+
+    /**
+     * An immutable version of a task list. Its tasks never change, so it can
+     * be read from any thread while the list keeps changing.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final PersistentList<Task> tasks;
+
+        private Snapshot(long version, PersistentList<Task> tasks) {
+            this.version = version;
+            this.tasks = tasks;
+        }
+
+        /**
+         * Returns the number of changes made to the list before this snapshot was taken.
+         *
+         * @return Version number
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Returns the tasks of this version.
+         *
+         * @return A read-only list of the tasks
+         */
+        public List<Task> getTasks() {
+            return tasks.asList();
+        }
+
+        /**
+         * Returns the number of tasks in this version.
+         *
+         * @return Task count
+         */
+        public int size() {
+            return tasks.size();
+        }
+    }
+
+    private static final ParallelScanner DEFAULT_SCANNER = new ParallelScanner(ParallelScanner.DEFAULT_THRESHOLD);
+
+    /** Number of distinct query results kept per list. */
+    private static final int QUERY_CACHE_CAPACITY = 64;
+
+    /** Tasks in list order, addressable by position or by stable ID. */
+    private final TaskSlots tasks;
+
+    private final boolean isConcurrent;
+
+    /** Number of earlier versions kept for undo; 0 if undo is off. */
+    private final int historyDepth;
+
+    /** Latest published version; only maintained for concurrent lists and lists with undo. */
+    private volatile Snapshot snapshot;
+
+    /** Earlier versions, most recent first, and versions undone since the last change. */
+    private final Deque<PersistentList<Task>> undoHistory = new ArrayDeque<>();
+    private final Deque<PersistentList<Task>> redoHistory = new ArrayDeque<>();
+
+    /** Number of changes made so far. */
+    private long version;
+
+    /** Results of find, date and reminder queries, valid until the next change. */
+    private final QueryCache<TaskView> queryCache = new QueryCache<>(QUERY_CACHE_CAPACITY);
+
+    /** Runs the queries that cannot be answered from an index. */
+    private volatile ParallelScanner scanner = DEFAULT_SCANNER;
+
+    /** Built on the first indexed search, then maintained on every change. */
+    private TrigramIndex textIndex;
+
+    /** Built on the first date query, then maintained on every add and delete. */
+    private IntervalIndex dateIndex;
+
+    /** Built on the first reminder query, then maintained on every add and delete. */
+    private TimeIndex timeIndex;
+
+    /** Built on the first compound query that filters by status, then maintained on every change. */
+    private DoneIndex doneIndex;
+
+    /** Number of tasks marked done; maintained on every change. */
+    private int doneCount;
+
+    /** Number of tasks of each {@link TaskQuery.Type}, by ordinal; maintained on every add and delete. */
+    private final int[] typeCounts = new int[TaskQuery.Type.values().length];
+
+    /**
+     * IDs of recurring tasks; maintained on every add and delete. The time and
+     * date indexes leave these tasks out, so queries check them separately.
+     */
+    private final BitSet recurringIds = new BitSet();
+
+    /**
+     * Due times of unfinished deadlines, and start and end times of events.
+     * Built on the first stats request, then maintained on every change.
+     */
+    private TimeCounter openDeadlineCounter;
+    private TimeCounter eventStartCounter;
+    private TimeCounter eventEndCounter;
+
+    /** Reminds of due times as they arrive; told of every change once attached. */
+    private ReminderScheduler reminderScheduler;
 
     /**
      * Constructs a TaskList with an existing list of tasks.
+     * Tasks without an ID, or whose ID is already taken, are given a new one.
      *
      * @param tasks The initial list of tasks
-     * @throws IllegalArgumentException If tasks is null
+     * @throws IllegalArgumentException If tasks is null or contains null
      */
     public TaskList(ArrayList<Task> tasks) {
-        if (tasks == null) {
+        this(tasks, Layout.OBJECTS);
+    }
+
+    /**
+     * Constructs a TaskList with an existing list of tasks and the given memory layout.
+     * Tasks without an ID, or whose ID is already taken, are given a new one.
+     *
+     * @param tasks  The initial list of tasks
+     * @param layout How the tasks are kept in memory
+     * @throws IllegalArgumentException If tasks is null or contains null, or layout is null
+     */
+    public TaskList(ArrayList<Task> tasks, Layout layout) {
+        this(tasks, layout, false);
+    }
+
+    /**
+     * Constructs a TaskList with an existing list of tasks, the given memory
+     * layout, and optionally safe for reading from other threads.
+     * Tasks without an ID, or whose ID is already taken, are given a new one.
+     *
+     * @param tasks        The initial list of tasks
+     * @param layout       How the tasks are kept in memory
+     * @param isConcurrent true to publish a snapshot on every change so that
+     *                     other threads can read the list while it is changed
+     * @throws IllegalArgumentException If tasks is null or contains null, or layout is null
+     */
+    public TaskList(ArrayList<Task> tasks, Layout layout, boolean isConcurrent) {
+        this(tasks, layout, isConcurrent, 0);
+    }
+
+    /**
+     * Constructs a TaskList with an existing list of tasks, the given memory
+     * layout, optional thread safety, and the given number of changes that can be undone.
+     * Tasks without an ID, or whose ID is already taken, are given a new one.
+     *
+     * @param tasks        The initial list of tasks
+     * @param layout       How the tasks are kept in memory
+     * @param isConcurrent true to publish a snapshot on every change so that
+     *                     other threads can read the list while it is changed
+     * @param historyDepth Number of changes that can be undone, or 0 to turn undo off
+     * @throws IllegalArgumentException If tasks is null or contains null, layout is
+     *                                  null, or historyDepth is negative
+     */
+    public TaskList(ArrayList<Task> tasks, Layout layout, boolean isConcurrent, int historyDepth) {
+        if (tasks == null || tasks.contains(null)) {
             throw new IllegalArgumentException("tasks must not be null");
         }
-        this.tasks = tasks;
-        assert this.tasks != null : "tasks list should not be null after initialization";
+        if (layout == null) {
+            throw new IllegalArgumentException("layout must not be null");
+        }
+        if (historyDepth < 0) {
+            throw new IllegalArgumentException("historyDepth must not be negative");
+        }
+        this.isConcurrent = isConcurrent;
+        this.historyDepth = historyDepth;
+        this.tasks = new TaskSlots(layout == Layout.COLUMNAR
+                ? new ColumnarTaskStore()
+                : new ObjectTaskStore(isSnapshotKept()));
+        tasks.forEach(this.tasks::add);
+        tasks.forEach(task -> countTask(task, 1));
+        if (isSnapshotKept()) {
+            snapshot = new Snapshot(0, PersistentList.of(this.tasks.asList()));
+        }
     }
 
     /**
      * Constructs an empty TaskList.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
-        assert this.tasks != null : "tasks list should not be null after initialization";
+        this(new ArrayList<>(), Layout.OBJECTS);
     }
 
     /**
-     * Adds a task to the list.
+     * Adds a task to the list, assigning it an ID if it does not have one.
      *
      * @param task The task to be added
      * @throws IllegalArgumentException If task is null
      */
-    public void add(Task task) {
+    public synchronized void add(Task task) {
         if (task == null) {
             throw new IllegalArgumentException("task must not be null");
         }
         tasks.add(task);
+        version++;
+        countTask(task, 1);
+        if (isSnapshotKept()) {
+            publish(snapshot.tasks.add(task));
+        }
+        if (textIndex != null) {
+            textIndex.add(task);
+        }
+        if (dateIndex != null) {
+            dateIndex.add(task);
+        }
+        if (timeIndex != null) {
+            timeIndex.add(task);
+        }
+        if (doneIndex != null) {
+            doneIndex.add(task);
+        }
+        if (openDeadlineCounter != null) {
+            addTimes(task);
+        }
+        if (reminderScheduler != null) {
+            reminderScheduler.schedule(task);
+        }
     }
 
     /**
      * Deletes a task from the list at the specified index.
+     * Later tasks move up one position but keep their IDs.
      *
      * @param index The index of the task to be removed
      * @return The task that was removed
      * @throws IndexOutOfBoundsException If the index is out of range
      */
-    public Task delete(int index) {
+    public synchronized Task delete(int index) {
         assert index >= 0 && index < tasks.size() : "delete index out of range: " + index;
         Task removed = tasks.remove(index);
         assert removed != null : "removed task should not be null";
+        version++;
+        if (isSnapshotKept()) {
+            publish(snapshot.tasks.remove(index));
+        }
+        unindex(removed);
         return removed;
     }
 
+    /**
+     * Deletes the tasks at the given positions as one change. All positions
+     * are checked before anything is deleted, and the remaining tasks are
+     * compacted at most once, however many are deleted.
+     *
+     * @param indices 0-based positions, in any order; repeats are ignored
+     * @return The deleted tasks, in list order
+     * @throws IllegalArgumentException If indices is null
+     * @throws IndexOutOfBoundsException If any position is out of range
+     */
+    public synchronized List<Task> deleteAll(int[] indices) {
+        int[] sorted = checkIndices(indices);
+        Task[] removed = tasks.removeAll(sorted);
+        version++;
+        if (isSnapshotKept()) {
+            PersistentList<Task> remaining = snapshot.tasks;
+            for (int i = sorted.length - 1; i >= 0; i--) {
+                remaining = remaining.remove(sorted[i]);
+            }
+            publish(remaining);
+        }
+        for (Task task : removed) {
+            unindex(task);
+        }
+        return Collections.unmodifiableList(Arrays.asList(removed));
+    }
+
+    /**
+     * Returns the positions sorted and without repeats, after checking that all are in range.
+     */
+    private int[] checkIndices(int[] indices) {
+        if (indices == null) {
+            throw new IllegalArgumentException("indices must not be null");
+        }
+        int[] sorted = Arrays.stream(indices).sorted().distinct().toArray();
+        for (int index : sorted) {
+            if (index < 0 || index >= tasks.size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + tasks.size());
+            }
+        }
+        return sorted;
+    }
+
+    /** Drops a deleted task from the counts and every index built so far. */
+    private void unindex(Task removed) {
+        countTask(removed, -1);
+        if (textIndex != null) {
+            textIndex.remove(removed.getId());
+        }
+        if (dateIndex != null) {
+            dateIndex.remove(removed.getId());
+        }
+        if (timeIndex != null) {
+            timeIndex.remove(removed.getId());
+        }
+        if (doneIndex != null) {
+            doneIndex.remove(removed.getId());
+        }
+        if (openDeadlineCounter != null) {
+            removeTimes(removed.getId());
+        }
+        if (reminderScheduler != null) {
+            reminderScheduler.cancel(removed.getId());
+        }
+    }
+
+    /**
+     * Marks the task at the specified index as done.
+     *
+     * @param index The index of the task to mark
+     * @return The marked task
+     * @throws IndexOutOfBoundsException If the index is out of range
+     */
+    public synchronized Task markAsDone(int index) {
+        return setDone(index, true);
+    }
+
+    /**
+     * Marks the task at the specified index as not done.
+     *
+     * @param index The index of the task to unmark
+     * @return The unmarked task
+     * @throws IndexOutOfBoundsException If the index is out of range
+     */
+    public synchronized Task markAsUndone(int index) {
+        return setDone(index, false);
+    }
+
+    /**
+     * Marks the tasks at the given positions as done, as one change. All
+     * positions are checked before any task is marked.
+     *
+     * @param indices 0-based positions, in any order; repeats are ignored
+     * @return The marked tasks, in list order
+     * @throws IllegalArgumentException If indices is null
+     * @throws IndexOutOfBoundsException If any position is out of range
+     */
+    public synchronized List<Task> markAllAsDone(int[] indices) {
+        return setAllDone(indices, true);
+    }
+
+    /**
+     * Marks the tasks at the given positions as not done, as one change. All
+     * positions are checked before any task is unmarked.
+     *
+     * @param indices 0-based positions, in any order; repeats are ignored
+     * @return The unmarked tasks, in list order
+     * @throws IllegalArgumentException If indices is null
+     * @throws IndexOutOfBoundsException If any position is out of range
+     */
+    public synchronized List<Task> markAllAsUndone(int[] indices) {
+        return setAllDone(indices, false);
+    }
+
+    private Task setDone(int index, boolean isDone) {
+        Task task = updateDone(index, isDone);
+        version++;
+        if (isSnapshotKept()) {
+            publish(snapshot.tasks.set(index, task));
+        }
+        return task;
+    }
+
+    private List<Task> setAllDone(int[] indices, boolean isDone) {
+        int[] sorted = checkIndices(indices);
+        List<Task> changed = new ArrayList<>(sorted.length);
+        PersistentList<Task> published = isSnapshotKept() ? snapshot.tasks : null;
+        for (int index : sorted) {
+            Task task = updateDone(index, isDone);
+            changed.add(task);
+            if (isSnapshotKept()) {
+                published = published.set(index, task);
+            }
+        }
+        version++;
+        if (isSnapshotKept()) {
+            publish(published);
+        }
+        return Collections.unmodifiableList(changed);
+    }
+
+    /**
+     * Reverts the most recent change that has not been undone yet.
+     *
+     * @return true if a change was undone, false if there was none to undo
+     */
+    public synchronized boolean undo() {
+        if (undoHistory.isEmpty()) {
+            return false;
+        }
+        redoHistory.push(snapshot.tasks);
+        restore(undoHistory.pop());
+        return true;
+    }
+
+    /**
+     * Reapplies the change most recently undone. Any other change since then
+     * discards the changes that could be redone.
+     *
+     * @return true if a change was redone, false if there was none to redo
+     */
+    public synchronized boolean redo() {
+        if (redoHistory.isEmpty()) {
+            return false;
+        }
+        undoHistory.push(snapshot.tasks);
+        restore(redoHistory.pop());
+        return true;
+    }
+
+    /**
+     * Attaches a scheduler that reminds of due and start times, scheduling
+     * every task in the list now and keeping the reminders in sync with every later change.
+     *
+     * @param scheduler Scheduler to keep in sync
+     * @throws IllegalArgumentException If scheduler is null
+     */
+    synchronized void setReminderScheduler(ReminderScheduler scheduler) {
+        if (scheduler == null) {
+            throw new IllegalArgumentException("scheduler must not be null");
+        }
+        reminderScheduler = scheduler;
+        scheduler.scheduleAll(tasks.asList());
+    }
+
+    /** Returns true if changes are published as snapshots, for readers or for undo. */
+    private boolean isSnapshotKept() {
+        return isConcurrent || historyDepth > 0;
+    }
+
+    /**
+     * Publishes the version after a change, remembering the version before it
+     * for undo. The oldest version is forgotten once the history is full.
+     */
+    private void publish(PersistentList<Task> changed) {
+        if (historyDepth > 0) {
+            undoHistory.push(snapshot.tasks);
+            if (undoHistory.size() > historyDepth) {
+                undoHistory.removeLast();
+            }
+            redoHistory.clear();
+        }
+        snapshot = new Snapshot(version, changed);
+    }
+
+    /**
+     * Makes an earlier or later version the current one. The counts are
+     * recounted and the indexes dropped, to be rebuilt by the next query that needs them.
+     */
+    private void restore(PersistentList<Task> restored) {
+        tasks.replaceAll(restored.asList());
+        version++;
+        snapshot = new Snapshot(version, restored);
+        doneCount = 0;
+        Arrays.fill(typeCounts, 0);
+        recurringIds.clear();
+        restored.asList().forEach(task -> countTask(task, 1));
+        textIndex = null;
+        dateIndex = null;
+        timeIndex = null;
+        doneIndex = null;
+        openDeadlineCounter = null;
+        eventStartCounter = null;
+        eventEndCounter = null;
+        if (reminderScheduler != null) {
+            reminderScheduler.scheduleAll(restored.asList());
+        }
+    }
+
+    /** Sets the status of one task and updates the counts and indexes; the caller publishes the change. */
+    private Task updateDone(int index, boolean isDone) {
+        boolean wasDone = tasks.get(index).isDone();
+        Task task = tasks.setDone(index, isDone);
+        if (wasDone != isDone) {
+            doneCount += isDone ? 1 : -1;
+        }
+        if (textIndex != null) {
+            textIndex.update(task);
+        }
+        if (doneIndex != null) {
+            doneIndex.update(task);
+        }
+        if (openDeadlineCounter != null) {
+            addTimes(task);
+        }
+        if (reminderScheduler != null) {
+            reminderScheduler.schedule(task);
+        }
+        return task;
+    }
+
     /**
      * Retrieves a task from the list at the specified index.
      *
@@ -71,18 +561,34 @@ public class TaskList {
      * @throws IndexOutOfBoundsException If the index is out of range
      */
     public Task get(int index) {
+        if (isConcurrent) {
+            return snapshot.tasks.get(index);
+        }
         assert index >= 0 && index < tasks.size() : "get index out of range: " + index;
         Task task = tasks.get(index);
         assert task != null : "stored task should not be null";
         return task;
     }
 
+    /**
+     * Returns the current position of the task with the given ID.
+     *
+     * @param id The stable ID of the task
+     * @return The 0-based index of the task, or -1 if no task has that ID
+     */
+    public synchronized int indexOfId(int id) {
+        return tasks.indexOfId(id);
+    }
+
     /**
      * Returns the number of tasks in the list.
      *
      * @return The size of the task list
      */
     public int size() {
+        if (isConcurrent) {
+            return snapshot.size();
+        }
         assert tasks != null : "tasks list should not be null";
         return tasks.size();
     }
@@ -93,57 +599,454 @@ public class TaskList {
      * @return true if the list is empty
      */
     public boolean isEmpty() {
-        return tasks.isEmpty();
+        return size() == 0;
     }
 
     /**
-     * Returns an unmodifiable view of the underlying list of tasks.
+     * Returns an unmodifiable view of the underlying list of tasks. For a
+     * concurrent list this is the latest snapshot, which later changes do not affect.
      *
      * @return A read-only view containing all tasks
      */
     public List<Task> getTasks() {
-        return Collections.unmodifiableList(tasks);
+        return isConcurrent ? snapshot.getTasks() : tasks.asList();
+    }
+
+    /**
+     * Returns a view of all tasks in list order, for reading the list one page
+     * at a time. For a concurrent list the view reads the latest snapshot.
+     *
+     * @return A view of the whole list
+     */
+    public TaskView viewAll() {
+        if (isConcurrent) {
+            return TaskView.of(snapshot.getTasks());
+        }
+        return TaskView.of(this, version, tasks.asList());
+    }
+
+    /**
+     * Returns an immutable snapshot of the list. This is free for a concurrent
+     * list or a list with undo; otherwise the tasks are copied.
+     *
+     * @return The current version of the list
+     */
+    public Snapshot getSnapshot() {
+        if (isSnapshotKept()) {
+            return snapshot;
+        }
+        ArrayList<Task> copies = new ArrayList<>(tasks.size());
+        for (Task task : tasks.asList()) {
+            copies.add(task.copy());
+        }
+        return new Snapshot(version, PersistentList.of(copies));
     }
 
     /**
      * Finds and returns tasks whose string representation contains the given
-     * keyword.
+     * keyword. Keywords of three or more characters are answered from a
+     * trigram index; shorter ones fall back to a scan. Results are cached
+     * until the list next changes.
      *
      * @param keyword The keyword used to search for matching tasks
-     * @return A TaskList containing all tasks that match the keyword
+     * @return A view of all tasks that match the keyword
      * @throws IllegalArgumentException If keyword is null
      */
-    public TaskList findTasks(String keyword) {
+    public TaskView findTasks(String keyword) {
         if (keyword == null) {
             throw new IllegalArgumentException("keyword must not be null");
         }
         assert tasks != null : "tasks list should not be null";
 
-        TaskList matchingTasks = new TaskList();
+        return queryCache.get("find\0" + keyword, currentVersion(), () -> {
+            if (!isConcurrent && TrigramIndex.canAnswer(keyword)) {
+                return withIds(getTextIndex().find(keyword));
+            }
+            return scan(task -> task.toString().contains(keyword));
+        });
+    }
+
+    /**
+     * Returns the number of queries answered from the result cache.
+     *
+     * @return Cache hit count
+     */
+    public long getCacheHits() {
+        return queryCache.getHits();
+    }
 
-        tasks.stream()
-                .filter(task -> task.toString().contains(keyword))
-                .forEach(matchingTasks::add);
+    /**
+     * Returns the number of queries that had to be computed because their
+     * result was not cached or was out of date.
+     *
+     * @return Cache miss count
+     */
+    public long getCacheMisses() {
+        return queryCache.getMisses();
+    }
 
-        return matchingTasks;
+    /** Returns the version that query results are cached and checked against. */
+    long currentVersion() {
+        return isConcurrent ? snapshot.getVersion() : version;
+    }
+
+    /**
+     * Sets the list size from which scans are split across threads. Smaller
+     * lists are scanned on the calling thread.
+     *
+     * @param threshold Minimum number of tasks for a parallel scan
+     * @throws IllegalArgumentException If threshold is not positive
+     */
+    public void setParallelThreshold(int threshold) {
+        scanner = new ParallelScanner(threshold);
+    }
+
+    /** Returns a view of the tasks that satisfy the predicate, in list order. */
+    private TaskView scan(Predicate<Task> predicate) {
+        if (isConcurrent) {
+            return TaskView.filtered(null, 0, snapshot.getTasks(), predicate, scanner);
+        }
+        return TaskView.filtered(this, version, tasks.asList(), predicate, scanner);
+    }
+
+    /** Returns a view of the tasks with the given IDs, in the given order. */
+    private TaskView withIds(int[] ids) {
+        return TaskView.ofIds(this, version, ids, tasks::getById);
+    }
+
+    private TrigramIndex getTextIndex() {
+        if (textIndex == null) {
+            textIndex = new TrigramIndex();
+            tasks.asList().forEach(textIndex::add);
+        }
+        return textIndex;
+    }
+
+    /**
+     * Returns the tasks that occur on the given date, in list order.
+     *
+     * @param date Date to look up
+     * @return A view of deadlines due and events running on that date
+     * @throws IllegalArgumentException If date is null
+     */
+    public TaskView getTasksOn(LocalDate date) {
+        return getTasksBetween(date, date);
+    }
+
+    /**
+     * Returns the tasks that occur on at least one day of the inclusive date
+     * range, in list order. Answered from an interval index over task dates,
+     * and cached until the list next changes.
+     *
+     * @param from First date of the range
+     * @param to   Last date of the range
+     * @return A view of deadlines and events that overlap the range
+     * @throws IllegalArgumentException If either date is null or from is after to
+     */
+    public TaskView getTasksBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("dates must not be null");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("start date must not be after end date");
+        }
+
+        LocalDateTime start = from.atStartOfDay();
+        return queryCache.get("dates\0" + from + "\0" + to, currentVersion(), () -> {
+            if (isConcurrent) {
+                return scan(task -> task.occursBetween(from, to))
+                        .showingOccurrences(task -> task.getOccurrenceEndingFrom(start));
+            }
+            int[] ids = getDateIndex().findOverlapping(from, to);
+            if (recurringIds.isEmpty()) {
+                return withIds(ids);
+            }
+            return withIds(inListOrder(withRecurring(ids, task -> task.occursBetween(from, to))))
+                    .showingOccurrences(task -> task.getOccurrenceEndingFrom(start));
+        });
+    }
+
+    private IntervalIndex getDateIndex() {
+        if (dateIndex == null) {
+            dateIndex = new IntervalIndex();
+            tasks.asList().forEach(dateIndex::add);
+        }
+        return dateIndex;
     }
 
     /**
      * Gets tasks that are due or starting within the specified number of days from today.
+     * Cached results are keyed by today's date, so they expire when the date changes.
      *
      * @param days Number of days from today to look ahead (inclusive)
-     * @return A TaskList of matching deadline and event tasks
+     * @return A view of matching deadline and event tasks, earliest first
      */
-    public TaskList getReminders(int days) {
-        if (days < 0)
+    public TaskView getReminders(int days) {
+        return getReminders(LocalDate.now(), days);
+    }
+
+    /**
+     * Gets tasks that are due or starting between the given date and the given
+     * number of days after it. Answered with a range scan over a time index,
+     * so tasks outside the window are never visited. Results are cached until
+     * the list next changes.
+     *
+     * @param today First date of the window
+     * @param days  Number of days after today to look ahead (inclusive)
+     * @return A view of matching deadline and event tasks, earliest first
+     * @throws IllegalArgumentException If today is null or days is negative
+     */
+    public TaskView getReminders(LocalDate today, int days) {
+        if (today == null) {
+            throw new IllegalArgumentException("today must not be null");
+        }
+        if (days < 0) {
             throw new IllegalArgumentException("days must be non-negative!");
-        LocalDate today = LocalDate.now();
+        }
+
+        LocalDateTime from = today.atStartOfDay();
+        LocalDateTime to = today.plusDays(days + 1L).atStartOfDay();
 
-        TaskList result = new TaskList();
-        tasks.stream()
-                .filter(t -> t.isDueWithin(today, days))
-                .forEach(result::add);
-        return result;
+        return queryCache.get("remind\0" + today + "\0" + days, currentVersion(), () -> {
+            if (isConcurrent) {
+                ArrayList<Task> reminders = new ArrayList<>(scanner.filter(getTasks(),
+                        task -> task.isScheduledBetween(from, to)));
+                reminders.replaceAll(task -> task.getOccurrenceStartingFrom(from));
+                reminders.sort(Comparator.comparing(Task::getScheduledTime));
+                return TaskView.of(reminders);
+            }
+            int[] ids = getTimeIndex().findBetween(from, to);
+            int[] recurring = withRecurring(new int[0], task -> task.isScheduledBetween(from, to));
+            if (recurring.length == 0) {
+                return withIds(ids);
+            }
+            // Merge the next occurrences into the time-ordered matches; the sort is stable.
+            List<Task> reminders = new ArrayList<>(ids.length + recurring.length);
+            for (int id : ids) {
+                reminders.add(tasks.getById(id));
+            }
+            for (int id : recurring) {
+                reminders.add(tasks.getById(id).getOccurrenceStartingFrom(from));
+            }
+            reminders.sort(Comparator.comparing(Task::getScheduledTime));
+            return TaskView.of(this, version, reminders);
+        });
+    }
+
+    private TimeIndex getTimeIndex() {
+        if (timeIndex == null) {
+            timeIndex = new TimeIndex();
+            tasks.asList().forEach(timeIndex::add);
+        }
+        return timeIndex;
     }
 
+    /**
+     * Returns the tasks that meet every condition of the query, in list order.
+     *
+     * @param query Conditions to meet
+     * @return A view of the matching tasks
+     * @throws IllegalArgumentException If query is null
+     */
+    public TaskView query(TaskQuery query) {
+        return query(query, LocalDateTime.now());
+    }
+
+    /**
+     * Returns the tasks that meet every condition of the query at the given
+     * time, in list order.
+     * <p>
+     * The query is planned by sizing up each index that can answer one of its
+     * conditions: the text index by its smallest posting set, the done bitmap
+     * by its exact count, and the time index by counting the window up to the
+     * best size found so far. The smallest candidate set is read from its
+     * index and the remaining conditions are checked on those candidates only.
+     * With no usable index, or on a concurrent list, the tasks are scanned.
+     * Results are cached until the list next changes; overdue queries are
+     * evaluated to the minute.
+     * </p>
+     *
+     * @param query Conditions to meet
+     * @param now   Current time, for the overdue condition
+     * @return A view of the matching tasks
+     * @throws IllegalArgumentException If query or now is null
+     */
+    public TaskView query(TaskQuery query, LocalDateTime now) {
+        if (query == null || now == null) {
+            throw new IllegalArgumentException("query and time must not be null");
+        }
+        LocalDateTime minute = now.truncatedTo(ChronoUnit.MINUTES);
+        String key = "query\0" + query + (query.isOverdue() ? "\0" + minute : "");
+        return queryCache.get(key, currentVersion(), () -> {
+            TaskView matches = planQuery(query, minute);
+            if (!query.hasTimeWindow(false)) {
+                return matches;
+            }
+            LocalDateTime start = query.getWindowStart();
+            return matches.showingOccurrences(task -> task.getOccurrenceStartingFrom(start));
+        });
+    }
+
+    private TaskView planQuery(TaskQuery query, LocalDateTime now) {
+        Predicate<Task> predicate = task -> query.matches(task, now);
+        if (isConcurrent) {
+            return scan(predicate);
+        }
+
+        int[] candidates = null;
+        int best = tasks.size();
+        if (query.getDone() != null && getDoneIndex().count(query.getDone()) < best) {
+            best = getDoneIndex().count(query.getDone());
+            candidates = inListOrder(getDoneIndex().find(query.getDone()));
+        }
+
+        String text = query.getText();
+        if (text != null && TrigramIndex.canAnswer(text) && getTextIndex().estimate(text) < best) {
+            // The index matches display text, which includes the description, so it never misses a match.
+            best = getTextIndex().estimate(text);
+            candidates = getTextIndex().find(text);
+        }
+
+        if (query.hasTimeWindow(true)) {
+            LocalDateTime from = query.getWindowStart();
+            LocalDateTime to = query.getWindowEnd(now);
+            if (!to.isAfter(from)) {
+                candidates = new int[0];
+            } else if (getTimeIndex().countBetween(from, to, best) + recurringIds.cardinality() < best) {
+                candidates = inListOrder(withRecurring(getTimeIndex().findBetween(from, to),
+                        task -> task.isScheduledBetween(from, to)));
+            }
+        }
+
+        if (candidates == null) {
+            return scan(predicate);
+        }
+        return TaskView.filteredIds(this, version, candidates, tasks::getById, predicate, scanner);
+    }
+
+    /**
+     * Returns the given IDs followed by the IDs of the recurring tasks that
+     * meet the condition, which the time and date indexes cannot find.
+     */
+    private int[] withRecurring(int[] ids, Predicate<Task> condition) {
+        int[] recurring = recurringIds.stream().filter(id -> condition.test(tasks.getById(id))).toArray();
+        if (recurring.length == 0) {
+            return ids;
+        }
+        int[] all = Arrays.copyOf(ids, ids.length + recurring.length);
+        System.arraycopy(recurring, 0, all, ids.length, recurring.length);
+        return all;
+    }
+
+    /** Sorts task IDs into the order of the tasks in the list. */
+    private int[] inListOrder(int[] ids) {
+        long[] keyed = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            keyed[i] = ((long) tasks.indexOfId(ids[i]) << 32) | ids[i];
+        }
+        Arrays.sort(keyed);
+        int[] sorted = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            sorted[i] = (int) keyed[i];
+        }
+        return sorted;
+    }
+
+    private DoneIndex getDoneIndex() {
+        if (doneIndex == null) {
+            doneIndex = new DoneIndex();
+            tasks.asList().forEach(doneIndex::add);
+        }
+        return doneIndex;
+    }
+
+    /**
+     * Returns counts of the tasks by status and type, with the number of
+     * overdue deadlines and of deadlines and events this week (Monday to
+     * Sunday). Status and type counts are kept up to date on every change;
+     * the time-based counts are answered from order-statistic trees over
+     * task times in O(log n), so the cost does not grow with the list.
+     *
+     * @param now Current time
+     * @return The counts
+     * @throws IllegalArgumentException If now is null
+     */
+    public synchronized TaskStats getStats(LocalDateTime now) {
+        if (now == null) {
+            throw new IllegalArgumentException("time must not be null");
+        }
+        if (openDeadlineCounter == null) {
+            openDeadlineCounter = new TimeCounter();
+            eventStartCounter = new TimeCounter();
+            eventEndCounter = new TimeCounter();
+            tasks.asList().forEach(this::addTimes);
+        }
+
+        LocalDate monday = now.toLocalDate().with(DayOfWeek.MONDAY);
+        long weekStart = BinaryTaskFormat.toEpochMinute(monday.atStartOfDay());
+        long weekEnd = BinaryTaskFormat.toEpochMinute(monday.plusWeeks(1).atStartOfDay());
+        // An event runs during the week unless it ends before the week starts or starts after it ends.
+        int eventsThisWeek = eventStartCounter.countBefore(weekEnd) - eventEndCounter.countBefore(weekStart);
+        int overdueDeadlines = openDeadlineCounter.countBefore(BinaryTaskFormat.toEpochMinute(now));
+        int deadlinesThisWeek = openDeadlineCounter.countBetween(weekStart, weekEnd);
+
+        // Recurring tasks are not in the counters; there are few, so check each one.
+        for (int id = recurringIds.nextSetBit(0); id >= 0; id = recurringIds.nextSetBit(id + 1)) {
+            Task task = tasks.getById(id);
+            if (task instanceof Deadlines) {
+                overdueDeadlines += task.isOverdue(now) ? 1 : 0;
+                boolean isDue = task.isScheduledBetween(monday.atStartOfDay(), monday.plusWeeks(1).atStartOfDay());
+                deadlinesThisWeek += !task.isDone() && isDue ? 1 : 0;
+            } else if (task.occursBetween(monday, monday.plusDays(6))) {
+                eventsThisWeek++;
+            }
+        }
+
+        return new TaskStats(tasks.size(), doneCount,
+                typeCounts[TaskQuery.Type.TODO.ordinal()],
+                typeCounts[TaskQuery.Type.DEADLINE.ordinal()],
+                typeCounts[TaskQuery.Type.EVENT.ordinal()],
+                overdueDeadlines,
+                deadlinesThisWeek,
+                eventsThisWeek);
+    }
+
+    /** Adds delta to the status and type counts of the task, and tracks it if it recurs. */
+    private void countTask(Task task, int delta) {
+        if (task.isDone()) {
+            doneCount += delta;
+        }
+        if (task.isRecurring()) {
+            recurringIds.set(task.getId(), delta > 0);
+        }
+        TaskQuery.Type type = TaskQuery.Type.of(task);
+        if (type != null) {
+            typeCounts[type.ordinal()] += delta;
+        }
+    }
+
+    /** Records the times of a task in the time counters, replacing any it had. */
+    private void addTimes(Task task) {
+        int id = task.getId();
+        if (task.isRecurring()) {
+            return;
+        }
+        if (task instanceof Deadlines) {
+            if (task.isDone()) {
+                openDeadlineCounter.remove(id);
+            } else {
+                openDeadlineCounter.add(id, BinaryTaskFormat.toEpochMinute(((Deadlines) task).getBy()));
+            }
+        } else if (task instanceof Events) {
+            Events event = (Events) task;
+            eventStartCounter.add(id, BinaryTaskFormat.toEpochMinute(event.getFrom()));
+            eventEndCounter.add(id, BinaryTaskFormat.toEpochMinute(event.getTo()));
+        }
+    }
+
+    private void removeTimes(int id) {
+        openDeadlineCounter.remove(id);
+        eventStartCounter.remove(id);
+        eventEndCounter.remove(id);
+    }
 }
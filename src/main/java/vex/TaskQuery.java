@@ -0,0 +1,157 @@
+package vex;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A combination of conditions that tasks must all meet, answered by
+ * {@link TaskList#query(TaskQuery)}.
+ * <p>
+ * Every condition is optional; a null condition matches any task. Date
+ * conditions compare the time a task is due or starts
+ * ({@link Task#isScheduledBetween}), so tasks without one never match them;
+ * a recurring task matches if any of its occurrences does.
+ * </p>
+ */
+public final class TaskQuery {
+
+    /**
+     * Kinds of task a query can be restricted to.
+     */
+    public enum Type {
+        TODO,
+        DEADLINE,
+        EVENT;
+
+        boolean matches(Task task) {
+            return of(task) == this;
+        }
+
+        /**
+         * Returns the kind of the given task.
+         *
+         * @param task Task to classify
+         * @return Its kind, or null for a plain Task
+         */
+        static Type of(Task task) {
+            if (task instanceof ToDos) {
+                return TODO;
+            }
+            if (task instanceof Deadlines) {
+                return DEADLINE;
+            }
+            return task instanceof Events ? EVENT : null;
+        }
+    }
+
+    private final Type type;
+    private final Boolean isDone;
+    private final String text;
+    private final LocalDate after;
+    private final LocalDate before;
+    private final boolean isOverdue;
+
+    /**
+     * Creates a query from the given conditions.
+     *
+     * @param type      Kind of task, or null for any
+     * @param isDone    Required done status, or null for either
+     * @param text      Text the description must contain, or null for any
+     * @param after     Earliest date the task may be due or start on (inclusive), or null
+     * @param before    Latest date the task may be due or start on (inclusive), or null
+     * @param isOverdue true to keep only unfinished tasks whose deadline or end time has passed
+     * @throws IllegalArgumentException If text is blank, or after is later than before
+     */
+    public TaskQuery(Type type, Boolean isDone, String text, LocalDate after, LocalDate before, boolean isOverdue) {
+        if (text != null && text.isBlank()) {
+            throw new IllegalArgumentException("text must not be blank");
+        }
+        if (after != null && before != null && after.isAfter(before)) {
+            throw new IllegalArgumentException("after must not be later than before");
+        }
+        this.type = type;
+        this.isDone = isDone;
+        this.text = text;
+        this.after = after;
+        this.before = before;
+        this.isOverdue = isOverdue;
+    }
+
+    /**
+     * Returns true if the task meets every condition of the query.
+     *
+     * @param task Task to test
+     * @param now  Current time, for the overdue condition
+     * @return true if the task matches
+     */
+    boolean matches(Task task, LocalDateTime now) {
+        if (type != null && !type.matches(task)) {
+            return false;
+        }
+        if (isDone != null && task.isDone() != isDone) {
+            return false;
+        }
+        if (text != null && !task.getDescription().contains(text)) {
+            return false;
+        }
+        if (isOverdue && !task.isOverdue(now)) {
+            return false;
+        }
+        return !hasTimeWindow(false) || task.isScheduledBetween(getWindowStart(), getWindowEnd(now));
+    }
+
+    Boolean getDone() {
+        return isDone;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    boolean isOverdue() {
+        return isOverdue;
+    }
+
+    /**
+     * Returns true if matching tasks must be scheduled within a time window.
+     * An overdue task is always scheduled before now, so that condition
+     * narrows the window when it is counted.
+     *
+     * @param isOverdueCounted true to count the overdue condition as a window
+     * @return true if there is a window
+     */
+    boolean hasTimeWindow(boolean isOverdueCounted) {
+        return after != null || before != null || (isOverdueCounted && isOverdue);
+    }
+
+    /**
+     * Returns the start of the scheduled time window (inclusive).
+     *
+     * @return Start of the window
+     */
+    LocalDateTime getWindowStart() {
+        return after == null ? LocalDateTime.MIN : after.atStartOfDay();
+    }
+
+    /**
+     * Returns the end of the scheduled time window (exclusive).
+     *
+     * @param now Current time, which ends the window for overdue queries
+     * @return End of the window
+     */
+    LocalDateTime getWindowEnd(LocalDateTime now) {
+        LocalDateTime end = before == null ? LocalDateTime.MAX : before.plusDays(1).atStartOfDay();
+        return isOverdue && now.isBefore(end) ? now : end;
+    }
+
+    /**
+     * Returns a canonical description of the conditions, equal for equal queries.
+     *
+     * @return Description of the query
+     */
+    @Override
+    public String toString() {
+        return "type=" + type + " done=" + isDone + " text=" + text + " after=" + after
+                + " before=" + before + " overdue=" + isOverdue;
+    }
+}
@@ -0,0 +1,288 @@
+package vex;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Storage behind {@link TaskList}: tasks in list order, addressable by
+ * 0-based position or by their stable ID.
+ * <p>
+ * Deleting a task leaves a tombstone in its slot instead of shifting the
+ * tail, and a Fenwick tree over slot occupancy translates positions to slots
+ * in O(log n). An ID-to-slot map makes lookup by ID O(1). Once tombstones
+ * outnumber live tasks the slots are compacted, which keeps the amortized
+ * cost of a delete at O(log n). The tasks themselves are kept by a
+ * {@link TaskStore}.
+ * </p>
+ */
+class TaskSlots {
+
+    /** Compaction is skipped below this many tombstones; rebuilding tiny lists gains nothing. */
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 64;
+
+    /** Tasks in list order, including tombstones of deleted tasks. */
+    private final TaskStore slots;
+    private final IntIntMap slotById = new IntIntMap();
+
+    /** Fenwick tree (1-based) counting live tasks per slot. */
+    private int[] liveTree = new int[16];
+    private int liveCount;
+    private int nextId = 1;
+
+    /**
+     * Creates an empty table backed by the given store.
+     *
+     * @param slots Empty store that holds the tasks
+     */
+    TaskSlots(TaskStore slots) {
+        this.slots = slots;
+    }
+
+    /**
+     * Appends a task. A task without an ID, or with one already in use, is given a fresh ID.
+     *
+     * @param task Task to append
+     */
+    void add(Task task) {
+        int id = task.getId();
+        if (id <= 0 || slotById.containsKey(id)) {
+            id = nextId;
+            task.assignId(id);
+        }
+        nextId = Math.max(nextId, id + 1);
+
+        slots.append(task);
+        slotById.put(id, slots.slotCount() - 1);
+        appendToTree(slots.slotCount());
+        liveCount++;
+    }
+
+    /**
+     * Removes the task at the given position, leaving a tombstone.
+     *
+     * @param index 0-based position among live tasks
+     * @return The removed task
+     */
+    Task remove(int index) {
+        Task removed = tombstone(index);
+        compactIfSparse();
+        return removed;
+    }
+
+    /**
+     * Removes the tasks at the given positions in one pass, compacting at most once.
+     *
+     * @param indices Distinct 0-based positions among live tasks, in ascending order
+     * @return The removed tasks, in the same order
+     */
+    Task[] removeAll(int[] indices) {
+        Task[] removed = new Task[indices.length];
+        // Later positions first, so that the earlier ones have not moved yet.
+        for (int i = indices.length - 1; i >= 0; i--) {
+            removed[i] = tombstone(indices[i]);
+        }
+        compactIfSparse();
+        return removed;
+    }
+
+    private Task tombstone(int index) {
+        int slot = slotOf(index);
+        Task removed = slots.get(slot);
+        slots.clear(slot);
+        slotById.remove(removed.getId());
+        addToTree(slot + 1, -1);
+        liveCount--;
+        return removed;
+    }
+
+    private void compactIfSparse() {
+        int tombstones = slots.slotCount() - liveCount;
+        if (tombstones >= MIN_TOMBSTONES_TO_COMPACT && tombstones > liveCount) {
+            compact();
+        }
+    }
+
+    /**
+     * Replaces every task with the given ones, which keep their IDs. IDs
+     * handed out afterwards still follow the highest ID ever used.
+     *
+     * @param tasks New tasks in list order
+     */
+    void replaceAll(List<Task> tasks) {
+        for (int slot = 0; slot < slots.slotCount(); slot++) {
+            if (slots.isLive(slot)) {
+                slots.clear(slot);
+            }
+        }
+        slots.compact();
+        slotById.clear();
+        liveTree = new int[16];
+        liveCount = 0;
+        tasks.forEach(this::add);
+    }
+
+    /**
+     * Returns the task at the given position.
+     *
+     * @param index 0-based position among live tasks
+     * @return The task
+     */
+    Task get(int index) {
+        return slots.get(slotOf(index));
+    }
+
+    /**
+     * Updates the done status of the task at the given position.
+     *
+     * @param index  0-based position among live tasks
+     * @param isDone New status
+     * @return The task with its new status
+     */
+    Task setDone(int index, boolean isDone) {
+        int slot = slotOf(index);
+        slots.setDone(slot, isDone);
+        return slots.get(slot);
+    }
+
+    /**
+     * Returns the live task with the given ID.
+     *
+     * @param id Task ID
+     * @return The task, or null if no live task has that ID
+     */
+    Task getById(int id) {
+        int slot = slotById.get(id, -1);
+        return slot < 0 ? null : slots.get(slot);
+    }
+
+    /**
+     * Returns the current position of the task with the given ID.
+     *
+     * @param id Task ID
+     * @return 0-based position, or -1 if no live task has that ID
+     */
+    int indexOfId(int id) {
+        int slot = slotById.get(id, -1);
+        return slot < 0 ? -1 : prefixCount(slot + 1) - 1;
+    }
+
+    int size() {
+        return liveCount;
+    }
+
+    /**
+     * Returns a read-only view of the live tasks in list order.
+     * Iteration skips tombstones directly; positional access costs O(log n).
+     *
+     * @return Live view of the tasks
+     */
+    List<Task> asList() {
+        return new AbstractList<Task>() {
+            @Override
+            public Task get(int index) {
+                if (index < 0 || index >= liveCount) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + liveCount);
+                }
+                return TaskSlots.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return liveCount;
+            }
+
+            @Override
+            public Iterator<Task> iterator() {
+                return new Iterator<Task>() {
+                    private int slot = nextLiveSlot(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return slot < slots.slotCount();
+                    }
+
+                    @Override
+                    public Task next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Task task = slots.get(slot);
+                        slot = nextLiveSlot(slot + 1);
+                        return task;
+                    }
+                };
+            }
+        };
+    }
+
+    private int nextLiveSlot(int from) {
+        int slot = from;
+        while (slot < slots.slotCount() && !slots.isLive(slot)) {
+            slot++;
+        }
+        return slot;
+    }
+
+    /** Drops tombstones and rebuilds the ID map and the Fenwick tree. */
+    private void compact() {
+        slots.compact();
+        slotById.clear();
+        liveTree = new int[Math.max(16, Integer.highestOneBit(slots.slotCount()) << 1)];
+        for (int slot = 0; slot < slots.slotCount(); slot++) {
+            slotById.put(slots.idAt(slot), slot);
+            appendToTree(slot + 1);
+        }
+    }
+
+    /** Returns the slot holding the live task at the given 0-based position. */
+    private int slotOf(int index) {
+        if (index < 0 || index >= liveCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + liveCount);
+        }
+        int position = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(liveTree.length - 1); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= slots.slotCount() && liveTree[next] < remaining) {
+                position = next;
+                remaining -= liveTree[next];
+            }
+        }
+        return position;
+    }
+
+    /** Returns the number of live tasks in slots 1..n (1-based). */
+    private int prefixCount(int n) {
+        int count = 0;
+        for (int i = n; i > 0; i -= i & -i) {
+            count += liveTree[i];
+        }
+        return count;
+    }
+
+    private void addToTree(int n, int delta) {
+        for (int i = n; i <= slots.slotCount(); i += i & -i) {
+            liveTree[i] += delta;
+        }
+    }
+
+    /**
+     * Sets up tree node n for a newly appended live slot n. Node n covers slots
+     * (n - lowbit(n), n], so it is the count of the earlier slots in that range plus one.
+     */
+    private void appendToTree(int n) {
+        if (n >= liveTree.length) {
+            int[] grown = new int[liveTree.length * 2];
+            System.arraycopy(liveTree, 0, grown, 0, liveTree.length);
+            liveTree = grown;
+        }
+        int count = 1;
+        int lowest = n - (n & -n);
+        for (int i = n - 1; i > lowest; i -= i & -i) {
+            count += liveTree[i];
+        }
+        liveTree[n] = count;
+    }
+}
@@ -0,0 +1,77 @@
+package vex;
+
+/**
+ * Counts of the tasks in a {@link TaskList} at one moment, returned by
+ * {@link TaskList#getStats(java.time.LocalDateTime)}.
+ */
+public final class TaskStats {
+
+    private final int total;
+    private final int done;
+    private final int todos;
+    private final int deadlines;
+    private final int events;
+    private final int overdueDeadlines;
+    private final int deadlinesThisWeek;
+    private final int eventsThisWeek;
+
+    /**
+     * Creates a set of counts.
+     *
+     * @param total             Number of tasks
+     * @param done              Number of tasks marked done
+     * @param todos             Number of todos
+     * @param deadlines         Number of deadlines
+     * @param events            Number of events
+     * @param overdueDeadlines  Number of unfinished deadlines whose due time has passed
+     * @param deadlinesThisWeek Number of unfinished deadlines due this week
+     * @param eventsThisWeek    Number of events running on at least one day of this week
+     */
+    TaskStats(int total, int done, int todos, int deadlines, int events, int overdueDeadlines,
+            int deadlinesThisWeek, int eventsThisWeek) {
+        this.total = total;
+        this.done = done;
+        this.todos = todos;
+        this.deadlines = deadlines;
+        this.events = events;
+        this.overdueDeadlines = overdueDeadlines;
+        this.deadlinesThisWeek = deadlinesThisWeek;
+        this.eventsThisWeek = eventsThisWeek;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getDone() {
+        return done;
+    }
+
+    public int getOpen() {
+        return total - done;
+    }
+
+    public int getTodos() {
+        return todos;
+    }
+
+    public int getDeadlines() {
+        return deadlines;
+    }
+
+    public int getEvents() {
+        return events;
+    }
+
+    public int getOverdueDeadlines() {
+        return overdueDeadlines;
+    }
+
+    public int getDeadlinesThisWeek() {
+        return deadlinesThisWeek;
+    }
+
+    public int getEventsThisWeek() {
+        return eventsThisWeek;
+    }
+}
@@ -0,0 +1,67 @@
+package vex;
+
+/**
+ * Holds the tasks of a {@link TaskSlots}, one per slot, in append order.
+ * Deleted slots stay in place as tombstones until {@link #compact()}.
+ */
+interface TaskStore {
+
+    /**
+     * Stores a task in a new slot at the end.
+     *
+     * @param task Task to store; must already have an ID
+     */
+    void append(Task task);
+
+    /**
+     * Returns the task in a live slot. Implementations may create a new Task
+     * object on every call, so changes must go through {@link #setDone(int, boolean)}.
+     *
+     * @param slot Slot number
+     * @return The task
+     */
+    Task get(int slot);
+
+    /**
+     * Returns the ID of the task in a live slot without materializing it.
+     *
+     * @param slot Slot number
+     * @return Task ID
+     */
+    int idAt(int slot);
+
+    /**
+     * Updates the done status of the task in a live slot.
+     *
+     * @param slot   Slot number
+     * @param isDone New status
+     */
+    void setDone(int slot, boolean isDone);
+
+    /**
+     * Turns a slot into a tombstone.
+     *
+     * @param slot Slot number
+     */
+    void clear(int slot);
+
+    /**
+     * Returns true if the slot holds a task rather than a tombstone.
+     *
+     * @param slot Slot number
+     * @return true for live slots
+     */
+    boolean isLive(int slot);
+
+    /**
+     * Returns the number of slots, including tombstones.
+     *
+     * @return Slot count
+     */
+    int slotCount();
+
+    /**
+     * Removes all tombstones, moving live tasks down while keeping their order.
+     */
+    void compact();
+}
@@ -0,0 +1,345 @@
+package vex;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * A read-only result of a {@link TaskList} query that does not copy its tasks.
+ * <p>
+ * An index-backed view holds only the IDs of its matches and looks each task
+ * up when it is read, so its size is known up front. A scan-backed view holds
+ * the tasks it searches and the condition to match, and filters while it is
+ * iterated, so streaming, paging with {@link #iterator(int)}, checking for
+ * emptiness or taking the first few matches stops as soon as it can.
+ * {@link #size()} on a scan-backed view counts the matches without keeping
+ * them; {@link #get(int)} finds all matches once and remembers them.
+ * </p>
+ * <p>
+ * A view of a concurrent list reads a snapshot, so it never changes. A view of
+ * any other list is only valid until that list next changes; reading it after
+ * that throws {@link ConcurrentModificationException}.
+ * </p>
+ * <p>
+ * A view over a time window shows each recurring task as its occurrence in
+ * that window. The occurrence is computed as the task is read, so only the
+ * occurrences actually read are ever created.
+ * </p>
+ */
+public final class TaskView implements Iterable<Task> {
+
+    /** List the view was taken from, or null if the view can never go stale. */
+    private final TaskList owner;
+    private final long version;
+
+    /** Searched tasks and the match condition; null for views whose matches are known. */
+    private final List<Task> source;
+    private final Predicate<Task> predicate;
+    private final ParallelScanner scanner;
+
+    /** Matches in order; resolved on first positional access for scan-backed views. */
+    private volatile List<Task> matches;
+
+    /** Number of matches of a scan-backed view once counted, otherwise -1. */
+    private volatile int count = -1;
+
+    /** Turns a match into the occurrence to show; null to show matches as they are. */
+    private final UnaryOperator<Task> toOccurrence;
+
+    private TaskView(TaskList owner, long version, List<Task> source, Predicate<Task> predicate,
+            ParallelScanner scanner, List<Task> matches) {
+        this(owner, version, source, predicate, scanner, matches, null);
+    }
+
+    private TaskView(TaskList owner, long version, List<Task> source, Predicate<Task> predicate,
+            ParallelScanner scanner, List<Task> matches, UnaryOperator<Task> toOccurrence) {
+        this.owner = owner;
+        this.version = version;
+        this.source = source;
+        this.predicate = predicate;
+        this.scanner = scanner;
+        this.matches = matches;
+        this.toOccurrence = toOccurrence;
+    }
+
+    /**
+     * Returns a view of the same matches that shows each one as the given
+     * function maps it, such as a recurring task as its next occurrence.
+     *
+     * @param toOccurrence Maps a match to the task to show
+     * @return View with the mapping applied on read
+     */
+    TaskView showingOccurrences(UnaryOperator<Task> toOccurrence) {
+        return new TaskView(owner, version, source, predicate, scanner, matches, toOccurrence);
+    }
+
+    /**
+     * Returns a view of the tasks with the given IDs, in the given order.
+     *
+     * @param owner   List the IDs belong to
+     * @param version Version of the list the IDs were found at
+     * @param ids     Task IDs
+     * @param byId    Looks up the live task with an ID
+     * @return View of the tasks
+     */
+    static TaskView ofIds(TaskList owner, long version, int[] ids, IntFunction<Task> byId) {
+        return new TaskView(owner, version, null, null, null, byIds(ids, byId));
+    }
+
+    /**
+     * Returns a view of the tasks with the given IDs that satisfy the predicate, in the given order.
+     *
+     * @param owner     List the IDs belong to
+     * @param version   Version of the list the IDs were found at
+     * @param ids       IDs of the candidate tasks
+     * @param byId      Looks up the live task with an ID
+     * @param predicate Condition the candidates must also meet
+     * @param scanner   Scanner used when all matches are needed
+     * @return View of the matching tasks
+     */
+    static TaskView filteredIds(TaskList owner, long version, int[] ids, IntFunction<Task> byId,
+            Predicate<Task> predicate, ParallelScanner scanner) {
+        return filtered(owner, version, byIds(ids, byId), predicate, scanner);
+    }
+
+    private static List<Task> byIds(int[] ids, IntFunction<Task> byId) {
+        return new AbstractList<Task>() {
+            @Override
+            public Task get(int index) {
+                return byId.apply(ids[index]);
+            }
+
+            @Override
+            public int size() {
+                return ids.length;
+            }
+        };
+    }
+
+    /**
+     * Returns a view of the tasks in the source that satisfy the predicate.
+     *
+     * @param owner     List the source belongs to, or null if the source never changes
+     * @param version   Version of the list when the view was taken
+     * @param source    Tasks to search, in list order
+     * @param predicate Condition to match; must be safe to call from several threads
+     * @param scanner   Scanner used when all matches are needed
+     * @return View of the matching tasks
+     */
+    static TaskView filtered(TaskList owner, long version, List<Task> source, Predicate<Task> predicate,
+            ParallelScanner scanner) {
+        return new TaskView(owner, version, source, predicate, scanner, null);
+    }
+
+    /**
+     * Returns a view of tasks that have already been found and never change.
+     *
+     * @param tasks Matches in order
+     * @return View of the tasks
+     */
+    static TaskView of(List<Task> tasks) {
+        return of(null, 0, tasks);
+    }
+
+    /**
+     * Returns a view of all tasks of a list.
+     *
+     * @param owner   List the tasks belong to, or null if they never change
+     * @param version Version of the list when the view was taken
+     * @param tasks   Live tasks of the list, in order
+     * @return View of the tasks
+     */
+    static TaskView of(TaskList owner, long version, List<Task> tasks) {
+        return new TaskView(owner, version, null, null, null, tasks);
+    }
+
+    /**
+     * Returns the number of tasks in the view. Views with known matches answer
+     * this directly; scan-backed views count the matches once without keeping them.
+     *
+     * @return Task count
+     * @throws ConcurrentModificationException If the list changed after the query
+     */
+    public int size() {
+        checkNotStale();
+        List<Task> found = matches;
+        if (found != null) {
+            return found.size();
+        }
+        int counted = count;
+        if (counted < 0) {
+            counted = scanner.count(source, predicate);
+            count = counted;
+        }
+        return counted;
+    }
+
+    /**
+     * Returns true if the view has no tasks. Stops at the first match.
+     *
+     * @return true if nothing matched
+     * @throws ConcurrentModificationException If the list changed after the query
+     */
+    public boolean isEmpty() {
+        checkNotStale();
+        List<Task> found = matches;
+        return found != null ? found.isEmpty() : !iterator().hasNext();
+    }
+
+    /**
+     * Returns the task at the given position in the view.
+     *
+     * @param index 0-based position
+     * @return The task
+     * @throws IndexOutOfBoundsException If index is out of range
+     * @throws ConcurrentModificationException If the list changed after the query
+     */
+    public Task get(int index) {
+        return shown(resolve().get(index));
+    }
+
+    /**
+     * Returns up to the first n tasks of the view, stopping the search once they are found.
+     *
+     * @param n Maximum number of tasks
+     * @return The first tasks, in order
+     * @throws IllegalArgumentException If n is negative
+     * @throws ConcurrentModificationException If the list changed after the query
+     */
+    public List<Task> first(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be non-negative");
+        }
+        List<Task> firstTasks = new ArrayList<>(Math.min(n, 16));
+        Iterator<Task> iterator = iterator();
+        while (firstTasks.size() < n && iterator.hasNext()) {
+            firstTasks.add(iterator.next());
+        }
+        return firstTasks;
+    }
+
+    /**
+     * Returns a sequential stream of the tasks in the view, filtered as it is consumed.
+     *
+     * @return Stream of the tasks
+     * @throws ConcurrentModificationException If the list changed after the query
+     */
+    public Stream<Task> stream() {
+        checkNotStale();
+        List<Task> found = matches;
+        Stream<Task> tasks = found != null ? found.stream() : source.stream().filter(predicate);
+        return toOccurrence == null ? tasks : tasks.map(toOccurrence);
+    }
+
+    /**
+     * Returns an iterator over the tasks in the view, filtered as it advances.
+     *
+     * @return Iterator over the tasks
+     * @throws ConcurrentModificationException If the list changed after the query
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return iterator(0);
+    }
+
+    /**
+     * Returns an iterator over the tasks in the view that starts at the given
+     * position, for reading a long result one page at a time. Starting past
+     * the end gives an empty iterator.
+     *
+     * @param from 0-based position of the first task
+     * @return Iterator over the tasks from that position
+     * @throws IllegalArgumentException If from is negative
+     * @throws ConcurrentModificationException If the list changed after the query
+     */
+    public Iterator<Task> iterator(int from) {
+        if (from < 0) {
+            throw new IllegalArgumentException("start position must be non-negative");
+        }
+        checkNotStale();
+        List<Task> found = matches;
+        if (found != null) {
+            return shown(from == 0 ? found.iterator() : found.listIterator(Math.min(from, found.size())));
+        }
+
+        Iterator<Task> iterator = new FilterIterator();
+        for (int skipped = 0; skipped < from && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        return shown(iterator);
+    }
+
+    private Task shown(Task match) {
+        return toOccurrence == null ? match : toOccurrence.apply(match);
+    }
+
+    private Iterator<Task> shown(Iterator<Task> iterator) {
+        if (toOccurrence == null) {
+            return iterator;
+        }
+        return new Iterator<Task>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Task next() {
+                return toOccurrence.apply(iterator.next());
+            }
+        };
+    }
+
+    private List<Task> resolve() {
+        checkNotStale();
+        List<Task> found = matches;
+        if (found == null) {
+            found = scanner.filter(source, predicate);
+            matches = found;
+        }
+        return found;
+    }
+
+    private void checkNotStale() {
+        if (owner != null && owner.currentVersion() != version) {
+            throw new ConcurrentModificationException("task list changed after the query");
+        }
+    }
+
+    /**
+     * Walks the source, yielding the tasks that match.
+     */
+    private final class FilterIterator implements Iterator<Task> {
+        private final Iterator<Task> remaining = source.iterator();
+        private Task next;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && remaining.hasNext()) {
+                Task candidate = remaining.next();
+                if (predicate.test(candidate)) {
+                    next = candidate;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Task next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            checkNotStale();
+            Task current = next;
+            next = null;
+            return current;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package vex;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Counts tasks by a point in time, such as a due time, in O(log n).
+ * <p>
+ * Implemented as a treap ordered by time (ties broken by task ID) where every
+ * node records the size of its subtree, so the number of tasks before any
+ * moment is found on a single walk from the root. Differences of two such
+ * counts give the number of tasks in any window without visiting them.
+ * </p>
+ */
+class TimeCounter {
+
+    private final Map<Integer, Node> nodes = new HashMap<>();
+    private final Random random = new Random();
+    private Node root;
+
+    /**
+     * Counts a task at the given time. A task already counted is moved to the new time.
+     *
+     * @param id     Task ID
+     * @param minute Time as minutes since the epoch
+     */
+    void add(int id, long minute) {
+        remove(id);
+        Node node = new Node(id, minute, random.nextInt());
+        nodes.put(id, node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Stops counting a task. Does nothing if the task is not counted.
+     *
+     * @param id Task ID
+     */
+    void remove(int id) {
+        Node node = nodes.remove(id);
+        if (node != null) {
+            root = delete(root, node);
+        }
+    }
+
+    /**
+     * Returns the number of tasks counted strictly before the given time.
+     *
+     * @param minute Time as minutes since the epoch
+     * @return Number of earlier tasks
+     */
+    int countBefore(long minute) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.minute < minute) {
+                count += sizeOf(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of tasks counted in the half-open window [from, to).
+     *
+     * @param from Start of the window, in minutes since the epoch (inclusive)
+     * @param to   End of the window, in minutes since the epoch (exclusive)
+     * @return Number of tasks in the window
+     */
+    int countBetween(long from, long to) {
+        return Math.max(0, countBefore(to) - countBefore(from));
+    }
+
+    private Node insert(Node subtree, Node node) {
+        if (subtree == null) {
+            return node;
+        }
+        if (node.compareTo(subtree) < 0) {
+            subtree.left = insert(subtree.left, node);
+            if (subtree.left.priority > subtree.priority) {
+                subtree = rotateRight(subtree);
+            }
+        } else {
+            subtree.right = insert(subtree.right, node);
+            if (subtree.right.priority > subtree.priority) {
+                subtree = rotateLeft(subtree);
+            }
+        }
+        subtree.refresh();
+        return subtree;
+    }
+
+    private Node delete(Node subtree, Node node) {
+        if (subtree == null) {
+            return null;
+        }
+        if (subtree == node) {
+            return merge(node.left, node.right);
+        }
+        if (node.compareTo(subtree) < 0) {
+            subtree.left = delete(subtree.left, node);
+        } else {
+            subtree.right = delete(subtree.right, node);
+        }
+        subtree.refresh();
+        return subtree;
+    }
+
+    /** Joins two treaps where every key in left is smaller than every key in right. */
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.refresh();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.refresh();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.refresh();
+        pivot.refresh();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.refresh();
+        pivot.refresh();
+        return pivot;
+    }
+
+    private static int sizeOf(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * A task's time, with the number of tasks in its subtree.
+     */
+    private static final class Node implements Comparable<Node> {
+        private final int id;
+        private final long minute;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        Node(int id, long minute, int priority) {
+            this.id = id;
+            this.minute = minute;
+            this.priority = priority;
+        }
+
+        void refresh() {
+            size = sizeOf(left) + sizeOf(right) + 1;
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int byMinute = Long.compare(minute, other.minute);
+            return byMinute != 0 ? byMinute : Integer.compare(id, other.id);
+        }
+    }
+}
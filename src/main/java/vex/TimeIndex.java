@@ -0,0 +1,116 @@
+package vex;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Sorted index of deadlines by due time and events by start time.
+ * <p>
+ * Entries are kept in a navigable set ordered by time, with ties broken by
+ * insertion ordinal so that tasks due at the same moment keep their list
+ * order. A time window is answered with a range view of the set, touching
+ * only the k tasks inside it. Tasks are tracked by ID; those without a
+ * scheduled time are not stored, and neither are recurring tasks, which have
+ * no single time and are checked by {@link TaskList} itself.
+ * </p>
+ */
+class TimeIndex {
+
+    private final NavigableSet<Entry> entries = new TreeSet<>();
+    private final Map<Integer, Entry> entriesById = new HashMap<>();
+    private long nextOrdinal;
+
+    /**
+     * Indexes a task appended to the end of the list.
+     *
+     * @param task Task to index; ignored if it has no scheduled time or recurs
+     */
+    void add(Task task) {
+        long ordinal = nextOrdinal++;
+        LocalDateTime time = task.getScheduledTime();
+        if (time == null || task.isRecurring()) {
+            return;
+        }
+
+        Entry entry = new Entry(time, ordinal, task.getId());
+        entries.add(entry);
+        entriesById.put(task.getId(), entry);
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param id ID of the task to remove
+     */
+    void remove(int id) {
+        Entry entry = entriesById.remove(id);
+        if (entry != null) {
+            entries.remove(entry);
+        }
+    }
+
+    /**
+     * Counts the tasks scheduled in the half-open window [from, to), stopping at the limit.
+     *
+     * @param from  Start of the window (inclusive)
+     * @param to    End of the window (exclusive)
+     * @param limit Count at which to stop
+     * @return The number of tasks in the window, or limit if there are at least that many
+     */
+    int countBetween(LocalDateTime from, LocalDateTime to, int limit) {
+        int count = 0;
+        Iterator<Entry> window = entries.subSet(Entry.bound(from), true, Entry.bound(to), false).iterator();
+        while (count < limit && window.hasNext()) {
+            window.next();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the IDs of the tasks scheduled in the half-open window [from, to), earliest first.
+     *
+     * @param from Start of the window (inclusive)
+     * @param to   End of the window (exclusive)
+     * @return IDs of tasks in time order
+     */
+    int[] findBetween(LocalDateTime from, LocalDateTime to) {
+        NavigableSet<Entry> window = entries.subSet(Entry.bound(from), true, Entry.bound(to), false);
+        int[] ids = new int[window.size()];
+        int count = 0;
+        for (Entry entry : window) {
+            ids[count++] = entry.id;
+        }
+        return ids;
+    }
+
+    /**
+     * A task's scheduled time; ordinal breaks ties between equal times.
+     */
+    private static final class Entry implements Comparable<Entry> {
+        private final LocalDateTime time;
+        private final long ordinal;
+        private final int id;
+
+        Entry(LocalDateTime time, long ordinal, int id) {
+            this.time = time;
+            this.ordinal = ordinal;
+            this.id = id;
+        }
+
+        /** Returns a search key that sorts before every real entry at the given time. */
+        static Entry bound(LocalDateTime time) {
+            return new Entry(time, -1, 0);
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byTime = time.compareTo(other.time);
+            return byTime != 0 ? byTime : Long.compare(ordinal, other.ordinal);
+        }
+    }
+}
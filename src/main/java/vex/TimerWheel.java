@@ -0,0 +1,211 @@
+package vex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds task IDs until a given minute arrives, with O(1) add, remove and expiry.
+ * <p>
+ * Implemented as a hierarchical timer wheel: four levels of 64 slots, where a
+ * slot on level L spans 64^L minutes. A timer is placed on the lowest level
+ * whose span reaches its minute. As time advances, each slot of a higher level
+ * is emptied into the lower levels when its span begins, so a timer moves down
+ * at most three times before it expires. Timers further away than the top
+ * level reaches (about 32 years) are re-placed each time their slot comes round.
+ * Advancing skips straight to the next slot of the lowest level holding any
+ * timer, so a long jump does not visit every minute in between.
+ * </p>
+ */
+class TimerWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+
+    /** Heads of the timer lists of each slot, by level. */
+    private final Timer[][] slots = new Timer[LEVELS][SLOTS];
+    private final Map<Integer, Timer> timers = new HashMap<>();
+
+    /** Number of timers on each level, so that stretches with nothing to do are skipped. */
+    private final int[] levelSizes = new int[LEVELS];
+
+    /** Minute the wheel has advanced to; every earlier timer has expired. */
+    private long now;
+
+    /**
+     * Creates an empty wheel.
+     *
+     * @param minute Current time as minutes since the epoch
+     */
+    TimerWheel(long minute) {
+        this.now = minute;
+    }
+
+    /**
+     * Returns the minute the wheel has advanced to.
+     *
+     * @return Current time as minutes since the epoch
+     */
+    long getTime() {
+        return now;
+    }
+
+    /**
+     * Returns the number of timers that have not expired.
+     *
+     * @return Timer count
+     */
+    int size() {
+        return timers.size();
+    }
+
+    /**
+     * Sets a timer for a task. A task that already has a timer is moved to the
+     * new minute. A minute that is not after the current time expires on the next advance.
+     *
+     * @param id     Task ID
+     * @param minute Time to expire at, as minutes since the epoch
+     */
+    void add(int id, long minute) {
+        remove(id);
+        Timer timer = new Timer(id, Math.max(minute, now + 1));
+        timers.put(id, timer);
+        place(timer);
+    }
+
+    /**
+     * Cancels the timer of a task. Does nothing if the task has none.
+     *
+     * @param id Task ID
+     * @return true if a timer was cancelled
+     */
+    boolean remove(int id) {
+        Timer timer = timers.remove(id);
+        if (timer == null) {
+            return false;
+        }
+        unlink(timer);
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the given minute and returns the timers that
+     * expired on the way, in time order. Does nothing if the minute has passed.
+     *
+     * @param minute Time to advance to, as minutes since the epoch
+     * @return IDs of the expired tasks
+     */
+    List<Integer> advance(long minute) {
+        List<Integer> expired = new ArrayList<>();
+        while (now < minute) {
+            int lowest = 0;
+            while (lowest < LEVELS && levelSizes[lowest] == 0) {
+                lowest++;
+            }
+            if (lowest == LEVELS) {
+                now = minute;
+                break;
+            }
+            if (lowest > 0) {
+                // Nothing happens before the next slot of the lowest occupied level begins.
+                long span = 1L << (SLOT_BITS * lowest);
+                now = Math.min(minute, (Math.floorDiv(now, span) + 1) * span - 1);
+                if (now == minute) {
+                    break;
+                }
+            }
+            now++;
+            for (int level = highestLevelStartingAt(now); level > 0; level--) {
+                cascade(level, slotOf(now, level));
+            }
+            Timer timer = detach(0, slotOf(now, 0));
+            while (timer != null) {
+                Timer next = timer.next;
+                levelSizes[0]--;
+                timers.remove(timer.id);
+                expired.add(timer.id);
+                timer = next;
+            }
+        }
+        return expired;
+    }
+
+    /** Returns the highest level one of whose slots begins its span at the given minute. */
+    private static int highestLevelStartingAt(long minute) {
+        int level = 0;
+        while (level < LEVELS - 1 && (minute & ((1L << (SLOT_BITS * (level + 1))) - 1)) == 0) {
+            level++;
+        }
+        return level;
+    }
+
+    private static int slotOf(long minute, int level) {
+        return (int) ((minute >>> (SLOT_BITS * level)) & (SLOTS - 1));
+    }
+
+    /** Moves every timer of a slot down to the level its minute now belongs to. */
+    private void cascade(int level, int slot) {
+        Timer timer = detach(level, slot);
+        while (timer != null) {
+            Timer next = timer.next;
+            levelSizes[level]--;
+            place(timer);
+            timer = next;
+        }
+    }
+
+    private void place(Timer timer) {
+        long delta = timer.minute - now;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        timer.level = level;
+        timer.slot = slotOf(timer.minute, level);
+        timer.prev = null;
+        timer.next = slots[level][timer.slot];
+        if (timer.next != null) {
+            timer.next.prev = timer;
+        }
+        slots[level][timer.slot] = timer;
+        levelSizes[level]++;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            slots[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        levelSizes[timer.level]--;
+    }
+
+    /** Empties a slot and returns the first of its timers, which stay chained through next. */
+    private Timer detach(int level, int slot) {
+        Timer head = slots[level][slot];
+        slots[level][slot] = null;
+        return head;
+    }
+
+    /**
+     * A task's timer, linked into the list of its slot.
+     */
+    private static final class Timer {
+        private final int id;
+        private final long minute;
+        private int level;
+        private int slot;
+        private Timer prev;
+        private Timer next;
+
+        Timer(int id, long minute) {
+            this.id = id;
+            this.minute = minute;
+        }
+    }
+}
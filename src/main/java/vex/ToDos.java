@@ -15,6 +15,16 @@ public class ToDos extends Task {
         super(description);
     }
 
+    /**
+     * Returns an independent copy of this to-do with the same ID and status.
+     *
+     * @return Copy of the to-do
+     */
+    @Override
+    public Task copy() {
+        return copyStateTo(new ToDos(getDescription()));
+    }
+
     /**
      * Returns a string representation of the todo task, including the
      * status icon and the description.
@@ -0,0 +1,180 @@
+package vex;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Substring index over the display text ({@link Task#toString()}) of tasks.
+ * <p>
+ * Every distinct run of three characters in a task's text maps to the set of
+ * tasks containing it. A query of three or more characters only needs to
+ * check the tasks in the smallest posting set of its trigrams, so results are
+ * the same as calling {@code contains} on every task. Each task also gets an
+ * insertion ordinal so that results come back in list order. Tasks are
+ * tracked by ID, so the index also works for lists that materialize task
+ * objects on access.
+ * </p>
+ */
+class TrigramIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, Set<Integer>> postings = new HashMap<>();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private long nextOrdinal;
+
+    /**
+     * Returns true if keywords of this length can be answered from the index.
+     *
+     * @param keyword Search keyword
+     * @return true if the keyword has at least three characters
+     */
+    static boolean canAnswer(String keyword) {
+        return keyword.length() >= GRAM_LENGTH;
+    }
+
+    /**
+     * Indexes a task appended to the end of the list.
+     *
+     * @param task Task to index
+     */
+    void add(Task task) {
+        Entry entry = new Entry(nextOrdinal++, task.toString());
+        entries.put(task.getId(), entry);
+        for (long gram : gramsOf(entry.text)) {
+            postings.computeIfAbsent(gram, k -> new HashSet<>()).add(task.getId());
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param id ID of the task to remove
+     */
+    void remove(int id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (long gram : gramsOf(entry.text)) {
+            removePosting(gram, id);
+        }
+    }
+
+    /**
+     * Re-indexes a task whose display text may have changed, such as after a
+     * mark or unmark. Only trigrams that differ are touched.
+     *
+     * @param task Task to refresh
+     */
+    void update(Task task) {
+        int id = task.getId();
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return;
+        }
+        String newText = task.toString();
+        if (newText.equals(entry.text)) {
+            return;
+        }
+
+        Set<Long> oldGrams = gramsOf(entry.text);
+        Set<Long> newGrams = gramsOf(newText);
+        for (long gram : oldGrams) {
+            if (!newGrams.contains(gram)) {
+                removePosting(gram, id);
+            }
+        }
+        for (long gram : newGrams) {
+            if (!oldGrams.contains(gram)) {
+                postings.computeIfAbsent(gram, k -> new HashSet<>()).add(id);
+            }
+        }
+        entries.put(id, new Entry(entry.ordinal, newText));
+    }
+
+    /**
+     * Returns an upper bound on the number of tasks whose display text contains
+     * the keyword: the size of the smallest posting set of its trigrams.
+     *
+     * @param keyword Keyword of at least three characters
+     * @return Estimated number of matches
+     */
+    int estimate(String keyword) {
+        assert canAnswer(keyword) : "keyword too short for trigram lookup: " + keyword;
+
+        int smallest = Integer.MAX_VALUE;
+        for (long gram : gramsOf(keyword)) {
+            Set<Integer> posting = postings.get(gram);
+            smallest = Math.min(smallest, posting == null ? 0 : posting.size());
+        }
+        return smallest;
+    }
+
+    /**
+     * Returns the IDs of the tasks whose display text contains the keyword, in list order.
+     *
+     * @param keyword Keyword of at least three characters
+     * @return IDs of matching tasks
+     */
+    int[] find(String keyword) {
+        assert canAnswer(keyword) : "keyword too short for trigram lookup: " + keyword;
+
+        Set<Integer> smallest = null;
+        for (long gram : gramsOf(keyword)) {
+            Set<Integer> posting = postings.get(gram);
+            if (posting == null) {
+                return new int[0];
+            }
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+
+        List<Integer> matches = new ArrayList<>();
+        for (int candidate : smallest) {
+            if (entries.get(candidate).text.contains(keyword)) {
+                matches.add(candidate);
+            }
+        }
+        matches.sort(Comparator.comparingLong(id -> entries.get(id).ordinal));
+        return matches.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private void removePosting(long gram, int id) {
+        Set<Integer> posting = postings.get(gram);
+        if (posting == null) {
+            return;
+        }
+        posting.remove(id);
+        if (posting.isEmpty()) {
+            postings.remove(gram);
+        }
+    }
+
+    private static Set<Long> gramsOf(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    /**
+     * Insertion ordinal and the text a task was indexed under.
+     */
+    private static final class Entry {
+        private final long ordinal;
+        private final String text;
+
+        Entry(long ordinal, String text) {
+            this.ordinal = ordinal;
+            this.text = text;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package vex;
 
+import java.io.PrintStream;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -13,19 +15,62 @@ import java.util.List;
  */
 public class Ui {
 
-    /** Date format for display (e.g. "Jan 15 2025"). */
-    private static final DateTimeFormatter DISPLAY_DATE_FORMAT =
-            DateTimeFormatter.ofPattern("MMM d yyyy");
+    /** Number of tasks listed when confirming a bulk change; the rest are only counted. */
+    private static final int MAX_BATCH_LINES = 10;
 
     /** Stores messages for GUI output. */
     private final List<String> messages;
 
+    /** Whether messages are kept for {@link #getAllMessages()} as well as printed. */
+    private final boolean isRecording;
+
+    /** Stream messages are printed to, or null if they are not printed. */
+    private final PrintStream out;
+
+    /** Errors shown since the messages were last cleared, without their prefix; kept only when recording. */
+    private final List<String> errors;
+
     /**
      * Constructs a new Ui instance.
      * Initializes the messages list used to store output for GUI purposes.
      */
     public Ui() {
+        this(true);
+    }
+
+    /**
+     * Constructs a new Ui instance that optionally only prints its messages.
+     * A console-only Ui does not hold on to long outputs such as a streamed list.
+     *
+     * @param isRecording true to also keep messages for {@link #getAllMessages()}
+     */
+    public Ui(boolean isRecording) {
+        this(isRecording, true);
+    }
+
+    /**
+     * Constructs a new Ui instance that optionally keeps or prints its messages.
+     * A Ui that only records is silent, as when a batch of commands runs without output.
+     *
+     * @param isRecording true to keep messages for {@link #getAllMessages()}
+     * @param isPrinting  true to print messages to the console
+     */
+    public Ui(boolean isRecording, boolean isPrinting) {
+        this(isRecording, isPrinting ? System.out : null);
+    }
+
+    /**
+     * Constructs a new Ui instance that prints to the given stream. A stream
+     * that buffers its output shows messages only once {@link #flush()} is called.
+     *
+     * @param isRecording true to keep messages for {@link #getAllMessages()}
+     * @param out         Stream to print messages to, or null to print nothing
+     */
+    public Ui(boolean isRecording, PrintStream out) {
         this.messages = new ArrayList<>();
+        this.errors = new ArrayList<>();
+        this.isRecording = isRecording;
+        this.out = out;
     }
 
     /**
@@ -34,8 +79,21 @@ public class Ui {
      * @param message The message to display.
      */
     private void showMessage(String message) {
-        messages.add(message);
-        System.out.println(message);
+        if (isRecording) {
+            messages.add(message);
+        }
+        if (out != null) {
+            out.println(message);
+        }
+    }
+
+    /**
+     * Writes out any printed messages the output stream is still holding.
+     */
+    public void flush() {
+        if (out != null) {
+            out.flush();
+        }
     }
 
     /**
@@ -64,20 +122,38 @@ public class Ui {
      * @param message The error message to display.
      */
     public void showError(String message) {
+        if (isRecording) {
+            errors.add(message);
+        }
         showMessage("The Ancient frowns: " + message);
     }
 
     /**
-     * Displays all tasks currently in the task list.
+     * Returns the errors shown since the messages were last cleared, without
+     * the prefix they are shown with. Only a recording Ui keeps them.
+     *
+     * @return Error messages, oldest first
+     */
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Displays all tasks currently in the task list, a page at a time for long lists.
      *
      * @param tasks The TaskList containing tasks to show.
+     * @param page  The page to show.
      */
-    public void showTaskList(TaskList tasks) {
+    public void showTaskList(TaskList tasks, PageRequest page) {
+        TaskView allTasks = tasks.viewAll();
+        if (!hasPage(allTasks, page)) {
+            return;
+        }
         showMessage("Your campaign log, commander:");
-        if (tasks.isEmpty()) {
+        if (allTasks.isEmpty()) {
             showMessage("No objectives yet. Use todo, deadline, or event to add some.");
         } else {
-            showNumberedTaskList(tasks);
+            showPage(allTasks, page, true);
         }
     }
 
@@ -101,6 +177,26 @@ public class Ui {
         showMessage(task.toString());
     }
 
+    /**
+     * Confirms that several tasks have been marked as completed.
+     *
+     * @param tasks The tasks that were marked.
+     */
+    public void showMarkedTasks(List<Task> tasks) {
+        showMessage("Objectives complete. Marked " + tasks.size() + " as done:");
+        showBatch(tasks);
+    }
+
+    /**
+     * Confirms that several tasks have been marked as incomplete.
+     *
+     * @param tasks The tasks that were unmarked.
+     */
+    public void showUnmarkedTasks(List<Task> tasks) {
+        showMessage("Reopened. Marked " + tasks.size() + " as not done:");
+        showBatch(tasks);
+    }
+
     /**
      * Confirms that a task has been successfully added and shows the new total.
      *
@@ -109,7 +205,7 @@ public class Ui {
      */
     public void showAddedTask(Task task, int size) {
         showMessage("Added to the roster:");
-        showMessage("  " + task);
+        showMessage("  " + withId(task));
         showMessage("You now have " + size + " objective(s) in your campaign.");
     }
 
@@ -126,42 +222,143 @@ public class Ui {
     }
 
     /**
-     * Displays tasks that occur on a specific date.
+     * Confirms that several tasks have been deleted and shows the new total.
      *
-     * @param tasks     The TaskList to search through.
-     * @param queryDate The date for which to filter tasks.
+     * @param tasks The tasks that were deleted.
+     * @param size  The number of tasks remaining in the list.
      */
-    public void showTasksOnDate(TaskList tasks, LocalDate queryDate) {
-        String formattedDate = queryDate.format(DISPLAY_DATE_FORMAT);
+    public void showDeletedTasks(List<Task> tasks, int size) {
+        showMessage("Struck " + tasks.size() + " from the roster:");
+        showBatch(tasks);
+        showMessage("You now have " + size + " objective(s) in your campaign.");
+    }
 
-        showMessage("Objectives on " + formattedDate + ":");
+    /**
+     * Lists the first few tasks of a bulk change and counts the rest, so a
+     * change to hundreds of tasks stays short.
+     */
+    private void showBatch(List<Task> tasks) {
+        int shown = Math.min(tasks.size(), MAX_BATCH_LINES);
+        for (int i = 0; i < shown; i++) {
+            showMessage("  " + tasks.get(i));
+        }
+        if (tasks.size() > shown) {
+            showMessage("  ...and " + (tasks.size() - shown) + " more.");
+        }
+    }
 
-        boolean found = false;
-        for (Task task : tasks.getTasks()) {
-            if (task.occursOn(queryDate)) {
-                showMessage(task.toString());
-                found = true;
-            }
+    /**
+     * Displays tasks that occur on a specific date.
+     *
+     * @param tasksOnDate The tasks occurring on the date.
+     * @param queryDate   The date that was queried.
+     * @param page        The page to show.
+     */
+    public void showTasksOnDate(TaskView tasksOnDate, LocalDate queryDate, PageRequest page) {
+        if (!hasPage(tasksOnDate, page)) {
+            return;
         }
+        showMessage("Objectives on " + DateTimeCodec.formatDisplayDate(queryDate) + ":");
+        showTaskLines(tasksOnDate, page, "No battles scheduled for this date.");
+    }
 
-        if (!found) {
-            showMessage("No battles scheduled for this date.");
+    /**
+     * Displays tasks that occur on at least one day of a date range.
+     *
+     * @param tasksInRange The tasks overlapping the range.
+     * @param from         First date of the range.
+     * @param to           Last date of the range.
+     * @param page         The page to show.
+     */
+    public void showTasksInRange(TaskView tasksInRange, LocalDate from, LocalDate to, PageRequest page) {
+        if (!hasPage(tasksInRange, page)) {
+            return;
         }
+        showMessage("Objectives from " + DateTimeCodec.formatDisplayDate(from)
+                + " to " + DateTimeCodec.formatDisplayDate(to) + ":");
+        showTaskLines(tasksInRange, page, "No battles scheduled in this period.");
+    }
+
+    private void showTaskLines(TaskView tasks, PageRequest page, String emptyMessage) {
+        if (tasks.isEmpty()) {
+            showMessage(emptyMessage);
+            return;
+        }
+        showPage(tasks, page, false);
     }
 
     /**
      * Displays the tasks that match a search keyword.
      *
-     * @param matchingTasks The TaskList containing matching tasks.
+     * @param matchingTasks The tasks matching the search.
+     * @param page          The page to show.
      */
-    public void showSearchResults(TaskList matchingTasks) {
+    public void showSearchResults(TaskView matchingTasks, PageRequest page) {
         if (matchingTasks.isEmpty()) {
             showMessage("No objectives match that call.");
             return;
         }
+        if (!hasPage(matchingTasks, page)) {
+            return;
+        }
 
         showMessage("Intel matching your search:");
-        showNumberedTaskList(matchingTasks);
+        showPage(matchingTasks, page, true);
+    }
+
+    /**
+     * Displays the tasks that meet every filter of a query.
+     *
+     * @param matchingTasks The tasks matching the query.
+     * @param page          The page to show.
+     */
+    public void showQueryResults(TaskView matchingTasks, PageRequest page) {
+        if (matchingTasks.isEmpty()) {
+            showMessage("No objectives fit those orders.");
+            return;
+        }
+        if (!hasPage(matchingTasks, page)) {
+            return;
+        }
+
+        showMessage("Objectives fitting your orders:");
+        showPage(matchingTasks, page, true);
+    }
+
+    /**
+     * Confirms that the last change was undone and shows the new total.
+     *
+     * @param size The current number of tasks in the list.
+     */
+    public void showUndone(int size) {
+        showMessage("The last order is withdrawn.");
+        showMessage("You now have " + size + " objective(s) in your campaign.");
+    }
+
+    /**
+     * Confirms that an undone change was made again and shows the new total.
+     *
+     * @param size The current number of tasks in the list.
+     */
+    public void showRedone(int size) {
+        showMessage("The order stands once more.");
+        showMessage("You now have " + size + " objective(s) in your campaign.");
+    }
+
+    /**
+     * Displays counts of the tasks by status and type, and of the deadlines and events that need attention.
+     *
+     * @param stats The counts to show.
+     */
+    public void showStats(TaskStats stats) {
+        showMessage("State of the campaign:");
+        showMessage("Objectives: " + stats.getTotal() + " (" + stats.getOpen() + " open, "
+                + stats.getDone() + " done)");
+        showMessage("Todos: " + stats.getTodos() + ", deadlines: " + stats.getDeadlines()
+                + ", events: " + stats.getEvents());
+        showMessage("Overdue deadlines: " + stats.getOverdueDeadlines());
+        showMessage("Open deadlines due this week: " + stats.getDeadlinesThisWeek());
+        showMessage("Events this week: " + stats.getEventsThisWeek());
     }
 
     /**
@@ -170,32 +367,118 @@ public class Ui {
      */
     public void clearMessages() {
         messages.clear();
+        errors.clear();
     }
 
     /**
      * Displays tasks that are due/starting within the next given number of days.
      *
-     * @param reminders TaskList containing reminder tasks
+     * @param reminders Tasks due or starting in the window
      * @param days      Number of days to look ahead
+     * @param page      The page to show
      */
-    public void showReminders(TaskList reminders, int days) {
+    public void showReminders(TaskView reminders, int days, PageRequest page) {
         if (reminders.isEmpty()) {
             showMessage("No engagements in the next " + days + " day(s). The lane is clear.");
-        } else {
+        } else if (hasPage(reminders, page)) {
             showMessage("Upcoming engagements in the next " + days + " day(s):");
-            showNumberedTaskList(reminders);
+            showPage(reminders, page, true);
         }
     }
 
     /**
-     * Displays a task list as numbered lines (1. task, 2. task, ...).
+     * Announces that a deadline has fallen due or an event has started.
      *
-     * @param tasks The TaskList to display.
+     * @param task The task, or occurrence of a recurring task, whose time has come
      */
-    private void showNumberedTaskList(TaskList tasks) {
-        for (int i = 0; i < tasks.size(); i++) {
-            showMessage((i + 1) + ". " + tasks.get(i));
+    public void showDueTask(Task task) {
+        String arrival = task instanceof Events ? "The engagement begins:" : "The hour has come:";
+        showMessage(arrival);
+        showMessage("  " + withId(task));
+    }
+
+    /**
+     * Reports on a batch of commands: how many ran and how fast, the line and
+     * error of every command that failed, and whether the result was saved.
+     *
+     * @param report The outcome of the batch
+     */
+    public void showBatchReport(BatchRunner.Report report) {
+        showMessage("Batch orders carried out: " + report.getCommandCount() + " command(s) in "
+                + report.getElapsedMillis() + " ms (" + report.getCommandsPerSecond() + " per second).");
+        if (report.getErrorLines().isEmpty()) {
+            showMessage("Every order was followed.");
+        } else {
+            showMessage(report.getFailedCount() + " command(s) failed:");
+            for (String errorLine : report.getErrorLines()) {
+                showMessage("  " + errorLine);
+            }
+        }
+        if (report.isSaved()) {
+            showMessage("You now have " + report.getTaskCount() + " objective(s) in your campaign.");
+        } else {
+            showError("The campaign archives could not be written. The batch was not saved.");
         }
     }
 
+    /**
+     * Shows an error and returns false if the requested page is past the end of the result.
+     * The total is taken from the view, which knows it without listing the tasks for indexed queries.
+     */
+    private boolean hasPage(TaskView tasks, PageRequest page) {
+        if (page.isAllPages() || page.getPage() == 1) {
+            return true;
+        }
+        int pageCount = page.pageCount(tasks.size());
+        if (page.getPage() > pageCount) {
+            showError("There is no page " + page.getPage() + ". The results fill " + pageCount + " page(s).");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Displays the requested page of tasks, reading only that page from the view.
+     * For /page all, streams every task in turn without counting them first.
+     * Numbered lines are numbered by position in the whole result (1. task, 2. task, ...).
+     *
+     * @param tasks      The tasks to display.
+     * @param page       The page to show.
+     * @param isNumbered true to number the lines and show task IDs.
+     */
+    private void showPage(TaskView tasks, PageRequest page, boolean isNumbered) {
+        if (page.isAllPages()) {
+            int number = 1;
+            for (Task task : tasks) {
+                showTaskLine(task, number++, isNumbered);
+            }
+            return;
+        }
+
+        int offset = page.getOffset();
+        Iterator<Task> cursor = tasks.iterator(offset);
+        for (int shown = 0; shown < page.getSize() && cursor.hasNext(); shown++) {
+            showTaskLine(cursor.next(), offset + shown + 1, isNumbered);
+        }
+
+        int total = tasks.size();
+        int pageCount = page.pageCount(total);
+        if (pageCount > 1) {
+            String more = page.getPage() < pageCount ? " Use /page " + (page.getPage() + 1) + " for more." : "";
+            showMessage("Page " + page.getPage() + " of " + pageCount + " (" + total + " objectives)." + more);
+        }
+    }
+
+    private void showTaskLine(Task task, int number, boolean isNumbered) {
+        showMessage(isNumbered ? number + ". " + withId(task) : task.toString());
+    }
+
+    /**
+     * Appends the stable ID of a task to its display text, so that it can be
+     * referred to with #ID regardless of its position.
+     */
+    private static String withId(Task task) {
+        return task.getId() > 0 ? task + " (#" + task.getId() + ")" : task.toString();
+    }
+
 }
@@ -1,7 +1,16 @@
 package vex;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Scanner;
+import java.util.function.Consumer;
 
 /**
  * Entry point of the Vex chatbot application.
@@ -12,15 +21,32 @@ public class Vex {
 
     private static final String DEFAULT_SAVE_PATH = "data/tasks.txt";
     private static final String COMMAND_BYE = "bye";
+    private static final String OPTION_BATCH = "--batch";
+    private static final String OPTION_QUIET = "--quiet";
+    private static final String OPTION_CLI = "--cli";
+
+    /** Size of the input and output buffers when commands are piped in or out. */
+    private static final int PIPELINE_BUFFER_SIZE = 1 << 16;
+
+    /** Number of changes that undo can take back in one session. */
+    private static final int UNDO_DEPTH = 100;
 
     private static final String LOAD_ERROR_MESSAGE =
             "The campaign archives could not be read. Starting with an empty list.";
+    private static final String RECOVERY_MESSAGE =
+            "The campaign archives were damaged. These records could not be recovered:";
+    private static final String INPUT_ERROR_MESSAGE = "The orders could no longer be read. Ending the session.";
+    private static final String BATCH_USAGE = "Usage: vex --batch COMMANDS_FILE [--quiet]";
+    private static final String BATCH_READ_ERROR_MESSAGE = "The orders in %s could not be read. Nothing was saved.";
 
     private final Storage storage;
     private final TaskList tasks;
     private final Ui ui;
 
-    /** Non-null only when load failed; shown once at startup (CLI or GUI). */
+    /** Reminds of deadlines and events as their time comes; null until reminders are started. */
+    private ReminderScheduler reminderScheduler;
+
+    /** Non-null only when load failed or lost records; shown once at startup (CLI or GUI). */
     private String startupErrorMessage;
 
     /**
@@ -32,65 +58,257 @@ public class Vex {
      */
     public Vex(String filePath) {
         this.ui = new Ui();
-        this.storage = new Storage(filePath);
+        this.storage = new Storage(filePath, true, Storage.SaveFormat.TEXT,
+                Storage.Durability.PERIODIC, Storage.DEFAULT_SYNC_INTERVAL_MILLIS);
         this.tasks = loadTasksOrDefault();
     }
 
     /**
      * Loads tasks from storage. If the file is missing, it is created and an empty list is used.
-     * If loading fails (e.g. path invalid, permission denied), stores a message to show at startup.
+     * If loading fails (e.g. path invalid, permission denied), or records had to be dropped
+     * while recovering a damaged file, stores a message to show at startup.
      *
      * @return Loaded TaskList, or an empty TaskList if loading fails.
      */
     private TaskList loadTasksOrDefault() {
         try {
-            return new TaskList(storage.load());
+            TaskList loaded = new TaskList(storage.load(), TaskList.Layout.OBJECTS, false, UNDO_DEPTH);
+            if (!storage.getLostRecords().isEmpty()) {
+                startupErrorMessage = RECOVERY_MESSAGE + "\n" + String.join("\n", storage.getLostRecords());
+            }
+            return loaded;
         } catch (IOException e) {
             startupErrorMessage = LOAD_ERROR_MESSAGE;
-            return new TaskList();
+            return new TaskList(new ArrayList<>(), TaskList.Layout.OBJECTS, false, UNDO_DEPTH);
         } catch (RuntimeException e) {
             startupErrorMessage = LOAD_ERROR_MESSAGE;
-            return new TaskList();
+            return new TaskList(new ArrayList<>(), TaskList.Layout.OBJECTS, false, UNDO_DEPTH);
         }
     }
 
     /**
      * Starts the main execution loop of the chatbot.
      * Continues to read and process user commands until the "bye" command is
-     * received.
+     * received. Output only goes to the console, so long listings are not kept in memory.
+     * Reminders are printed as their time comes, between the output of commands.
+     * The end of input ends the session as "bye" does.
      */
     public void run() {
-        if (startupErrorMessage != null) {
-            ui.showError(startupErrorMessage);
-            startupErrorMessage = null;
-        }
-        ui.showGreeting();
+        Ui console = new Ui(false);
+        greet(console);
+        attachReminderScheduler(task -> {
+            synchronized (console) {
+                console.showDueTask(task);
+            }
+        });
 
         try (Scanner scanner = new Scanner(System.in)) {
-            while (true) {
+            while (scanner.hasNextLine()) {
                 String fullCommand = scanner.nextLine().trim();
 
                 if (fullCommand.isEmpty()) {
                     continue;
                 }
 
-                if (fullCommand.equalsIgnoreCase(COMMAND_BYE)) {
-                    ui.showBye();
-                    return;
+                if (isBye(fullCommand)) {
+                    break;
                 }
 
-                Parser.handleCommand(fullCommand, tasks, ui, storage);
+                synchronized (console) {
+                    Parser.handleCommand(fullCommand, tasks, console, storage);
+                }
             }
         }
+        endSession(console);
+    }
+
+    /**
+     * Runs commands piped in or out, such as from a generated file or into
+     * another program, as {@link #run()} does. Input is read through a large
+     * buffer, and output is collected in one buffer that is written out
+     * whenever no further input is waiting, so a stream of commands is
+     * answered in large writes while a person typing through a pipe still
+     * sees each reply at once.
+     */
+    public void runPipeline() {
+        Ui console = new Ui(false, newBufferedOutput());
+        greet(console);
+        attachReminderScheduler(task -> {
+            synchronized (console) {
+                console.showDueTask(task);
+                console.flush();
+            }
+        });
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(System.in, Charset.defaultCharset()), PIPELINE_BUFFER_SIZE)) {
+            while (true) {
+                if (!reader.ready()) {
+                    synchronized (console) {
+                        console.flush();
+                    }
+                }
+                String line = reader.readLine();
+                if (line == null) {
+                    break;
+                }
+
+                String fullCommand = line.trim();
+                if (fullCommand.isEmpty()) {
+                    continue;
+                }
+
+                if (isBye(fullCommand)) {
+                    break;
+                }
+
+                synchronized (console) {
+                    Parser.handleCommand(fullCommand, tasks, console, storage);
+                }
+            }
+        } catch (IOException e) {
+            synchronized (console) {
+                console.showError(INPUT_ERROR_MESSAGE);
+            }
+        }
+        try {
+            endSession(console);
+        } finally {
+            synchronized (console) {
+                console.flush();
+            }
+        }
+    }
+
+    /**
+     * Returns true if a line of input ends the session. Case is ignored, as
+     * is surrounding whitespace; nothing may follow the word.
+     *
+     * @param line Line of input
+     * @return true for "bye"
+     */
+    static boolean isBye(String line) {
+        return line.trim().equalsIgnoreCase(COMMAND_BYE);
+    }
+
+    /** Stops the reminders, waits for every change to be saved and says goodbye. */
+    private void endSession(Ui console) {
+        reminderScheduler.stop();
+        storage.flush();
+        synchronized (console) {
+            console.showBye();
+        }
+    }
+
+    /** Returns a stream onto standard output that only writes when its buffer fills or it is flushed. */
+    private static PrintStream newBufferedOutput() {
+        return new PrintStream(new BufferedOutputStream(System.out, PIPELINE_BUFFER_SIZE), false,
+                Charset.defaultCharset());
+    }
+
+    /** Shows the greeting, after the load error if there was one. */
+    private void greet(Ui console) {
+        if (startupErrorMessage != null) {
+            console.showError(startupErrorMessage);
+            startupErrorMessage = null;
+        }
+        console.showGreeting();
+    }
+
+    /**
+     * Runs a file of commands, one per line, as a single batch: their changes
+     * are saved once, when the file has been read to the end. Each command's
+     * output is printed unless quiet, and a report follows with the line of
+     * every command that failed and the number of commands run per second.
+     * No reminders are given.
+     *
+     * @param scriptPath Path of the commands file
+     * @param isQuiet    true to print only the report
+     * @return true if the file was read and the result saved
+     */
+    public boolean runBatch(String scriptPath, boolean isQuiet) {
+        Ui console = new Ui(false);
+        if (startupErrorMessage != null) {
+            console.showError(startupErrorMessage);
+            startupErrorMessage = null;
+        }
+
+        Ui output = new Ui(true, isQuiet ? null : newBufferedOutput());
+        BatchRunner.Report report;
+        try {
+            report = new BatchRunner(tasks, storage, output).run(Paths.get(scriptPath));
+        } catch (IOException | InvalidPathException e) {
+            output.flush();
+            console.showError(String.format(BATCH_READ_ERROR_MESSAGE, scriptPath));
+            return false;
+        }
+        output.flush();
+        console.showBatchReport(report);
+        return report.isSaved();
+    }
+
+    /**
+     * Starts reminding of deadlines and events as their time comes, for
+     * display in the GUI. Reminders arrive on a background thread.
+     *
+     * @param notifier Called with the text of each reminder
+     */
+    public void startReminders(Consumer<String> notifier) {
+        attachReminderScheduler(task -> {
+            Ui reminderUi = new Ui();
+            reminderUi.showDueTask(task);
+            notifier.accept(reminderUi.getAllMessages());
+        });
+    }
+
+    private void attachReminderScheduler(ReminderScheduler.Listener listener) {
+        if (reminderScheduler == null) {
+            reminderScheduler = new ReminderScheduler(listener);
+            tasks.setReminderScheduler(reminderScheduler);
+            reminderScheduler.start();
+        }
     }
 
     /**
      * Main method to launch the Vex application.
+     * With {@code --batch COMMANDS_FILE [--quiet]}, runs the commands in the
+     * file as one batch and exits with status 1 if it could not be run or saved.
+     * With {@code --cli} and no terminal, as when commands are piped in,
+     * streams them through {@link #runPipeline()}. Otherwise chats in the console.
      *
-     * @param args Command line arguments (not used).
+     * @param args Command line arguments; empty or {@code --cli} to chat in the console.
      */
     public static void main(String[] args) {
-        new Vex(DEFAULT_SAVE_PATH).run();
+        if (args.length > 0 && args[0].equals(OPTION_CLI) && System.console() == null) {
+            new Vex(DEFAULT_SAVE_PATH).runPipeline();
+            return;
+        }
+        if (args.length == 0 || !args[0].equals(OPTION_BATCH)) {
+            new Vex(DEFAULT_SAVE_PATH).run();
+            return;
+        }
+
+        boolean isQuiet = args.length == 3 && args[2].equals(OPTION_QUIET);
+        if (args.length != 2 && !isQuiet) {
+            System.err.println(BATCH_USAGE);
+            System.exit(2);
+        }
+        if (!new Vex(DEFAULT_SAVE_PATH).runBatch(args[1], isQuiet)) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Returns true if the command line asks for a console mode, {@code --batch}
+     * or {@code --cli}, rather than the GUI. Whether input is piped in cannot
+     * be told from a launch without a terminal, such as from a desktop, so the
+     * console is only chosen when asked for.
+     *
+     * @param args Command line arguments
+     * @return true to run in the console through {@link #main(String[])}
+     */
+    static boolean isConsoleRun(String[] args) {
+        return args.length > 0 && (args[0].equals(OPTION_BATCH) || args[0].equals(OPTION_CLI));
     }
 
     /**
@@ -114,6 +332,10 @@ public class Vex {
      * @return Goodbye text
      */
     public String getByeMessage() {
+        if (reminderScheduler != null) {
+            reminderScheduler.stop();
+        }
+        storage.flush();
         ui.clearMessages();
         ui.showBye();
         return ui.getAllMessages();
@@ -0,0 +1,54 @@
+package vex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import org.junit.jupiter.api.Test;
+
+public class DateTimeCodecTest {
+
+    @Test
+    public void parse_fieldInsideLongerText_readsOnlyThatRange() {
+        String line = "deadline essay /by 2028-02-29 2359 /every week";
+
+        assertEquals(LocalDateTime.of(2028, 2, 29, 23, 59), DateTimeCodec.parseInput(line, 19, 34));
+        assertEquals(LocalDateTime.of(2026, 2, 1, 10, 0),
+                DateTimeCodec.parseIso("E | 0 | x | 2026-02-01T10:00", 12, 28));
+        assertEquals(LocalDate.of(2026, 12, 31), DateTimeCodec.parseIsoDate("1w..2026-12-31", 4, 14));
+    }
+
+    @Test
+    public void parse_unusualInput_matchesDateTimeFormatter() {
+        for (String text : new String[] {"2026-02-30 1000", "2026-02-19 2400", "0000-01-01 0000"}) {
+            String expected;
+            try {
+                expected = LocalDateTime.parse(text, DateTimeCodec.INPUT_FORMAT).toString();
+            } catch (DateTimeParseException e) {
+                expected = e.getMessage();
+            }
+            String actual;
+            try {
+                actual = DateTimeCodec.parseInput(text, 0, text.length()).toString();
+            } catch (DateTimeParseException e) {
+                actual = e.getMessage();
+            }
+            assertEquals(expected, actual);
+        }
+        assertEquals(LocalDateTime.of(2026, 2, 1, 10, 0, 30), DateTimeCodec.parseIso("2026-02-01T10:00:30", 0, 19));
+        assertThrows(DateTimeParseException.class, () -> DateTimeCodec.parseIsoDate("2026-13-01", 0, 10));
+    }
+
+    @Test
+    public void format_matchesDateTimeFormatter() {
+        LocalDateTime time = LocalDateTime.of(2026, 3, 7, 9, 5);
+
+        assertEquals("Mar 7 2026 09:05", DateTimeCodec.formatDisplay(time));
+        assertEquals("Mar 7 2026", DateTimeCodec.formatDisplayDate(time.toLocalDate()));
+        assertEquals("2026-03-07T09:05", DateTimeCodec.formatIso(time));
+        assertEquals("2026-03-07T09:05:30", DateTimeCodec.formatIso(time.withSecond(30)));
+    }
+}
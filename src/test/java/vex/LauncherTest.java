@@ -0,0 +1,67 @@
+package vex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Runs the jar's entry point in a separate JVM, working in a temporary
+ * directory so that the save file it writes stays there.
+ */
+public class LauncherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void main_batchOption_runsScriptWithoutGui() throws IOException, InterruptedException {
+        Path script = tempDir.resolve("commands.txt");
+        Files.write(script, List.of("todo farm jungle", "mark 9", "todo push tower"));
+
+        Process process = launcher("--batch", script.toString(), "--quiet").start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+
+        assertEquals(0, process.waitFor(), output);
+        assertTrue(output.contains("  Line 2: You cannot attack what is not there!"), output);
+        assertTrue(output.contains("You now have 2 objective(s) in your campaign."), output);
+        List<String> saved = Files.readAllLines(tempDir.resolve("data").resolve("tasks.txt"));
+        assertTrue(saved.get(saved.size() - 1).startsWith("2 | T | 0 | push tower"), saved.toString());
+    }
+
+    @Test
+    public void main_cliOptionWithPipedInput_answersEveryCommandAndSavesAtEnd()
+            throws IOException, InterruptedException {
+        Path input = tempDir.resolve("input.txt");
+        Files.write(input, List.of("todo farm jungle", "", "todo push tower", "list"));
+
+        Process process = launcher("--cli").redirectInput(input.toFile()).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+
+        assertEquals(0, process.waitFor(), output);
+        assertTrue(output.startsWith("The Ancient stirs. I am Vex."), output);
+        assertTrue(output.contains("2. [T][ ] push tower (#2)"), output);
+        String farewell = "The battle ends. Until we meet again in the dark." + System.lineSeparator();
+        assertTrue(output.endsWith(farewell), output);
+        assertEquals(2, new Storage(tempDir.resolve("data").resolve("tasks.txt").toString(), true).load().size());
+    }
+
+    private ProcessBuilder launcher(String... args) {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Launcher.class.getName());
+        command.addAll(List.of(args));
+        return new ProcessBuilder(command).directory(tempDir.toFile()).redirectErrorStream(true);
+    }
+}
@@ -0,0 +1,382 @@
+package vex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskListTest {
+
+    @Test
+    public void findTasks_afterMarkAndDelete_matchesInListOrder() {
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDos("farm jungle"));
+        tasks.add(new Deadlines("farm lane", LocalDateTime.of(2026, 2, 1, 10, 0)));
+        tasks.add(new ToDos("push tower"));
+        tasks.add(new ToDos("farm ancients"));
+
+        assertEquals(3, tasks.findTasks("farm").size());
+
+        tasks.markAsDone(3);
+        tasks.delete(0);
+
+        TaskView matches = tasks.findTasks("farm");
+        assertEquals(2, matches.size());
+        assertEquals("[D][ ] farm lane (by: Feb 1 2026 10:00)", matches.get(0).toString());
+        assertEquals("[T][X] farm ancients", matches.get(1).toString());
+        assertEquals(1, tasks.findTasks("[X]").size());
+    }
+
+    @Test
+    public void findTasks_shortKeyword_scansAllTasks() {
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDos("ward"));
+        tasks.add(new ToDos("deward"));
+
+        assertEquals(2, tasks.findTasks("wa").size());
+    }
+
+    @Test
+    public void getTasksOn_eventsSpanningDate_includedInListOrder() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Events("siege", LocalDateTime.of(2026, 3, 1, 9, 0), LocalDateTime.of(2026, 3, 4, 18, 0)));
+        tasks.add(new ToDos("scout"));
+        tasks.add(new Deadlines("report", LocalDateTime.of(2026, 3, 2, 23, 59)));
+        tasks.add(new Deadlines("regroup", LocalDateTime.of(2026, 3, 5, 8, 0)));
+
+        TaskView onDate = tasks.getTasksOn(LocalDate.of(2026, 3, 2));
+        assertEquals(2, onDate.size());
+        assertEquals("[E][ ] siege (from: Mar 1 2026 09:00 to: Mar 4 2026 18:00)", onDate.get(0).toString());
+        assertEquals("[D][ ] report (by: Mar 2 2026 23:59)", onDate.get(1).toString());
+
+        tasks.delete(0);
+        assertEquals(1, tasks.getTasksOn(LocalDate.of(2026, 3, 2)).size());
+        assertEquals(0, tasks.getTasksOn(LocalDate.of(2026, 3, 3)).size());
+    }
+
+    @Test
+    public void getTasksBetween_range_returnsOverlappingTasks() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Deadlines("before", LocalDateTime.of(2026, 4, 30, 12, 0)));
+        tasks.add(new Events("across", LocalDateTime.of(2026, 4, 29, 12, 0), LocalDateTime.of(2026, 5, 1, 12, 0)));
+        tasks.add(new Deadlines("inside", LocalDateTime.of(2026, 5, 3, 12, 0)));
+        tasks.add(new Deadlines("after", LocalDateTime.of(2026, 5, 8, 12, 0)));
+
+        TaskView inRange = tasks.getTasksBetween(LocalDate.of(2026, 5, 1), LocalDate.of(2026, 5, 7));
+        assertEquals(2, inRange.size());
+        assertEquals("[E][ ] across (from: Apr 29 2026 12:00 to: May 1 2026 12:00)", inRange.get(0).toString());
+        assertEquals("[D][ ] inside (by: May 3 2026 12:00)", inRange.get(1).toString());
+    }
+
+    @Test
+    public void getReminders_window_returnsTasksInTimeOrder() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Deadlines("late", LocalDateTime.of(2026, 6, 4, 23, 59)));
+        tasks.add(new ToDos("whenever"));
+        tasks.add(new Events("raid", LocalDateTime.of(2026, 6, 2, 20, 0), LocalDateTime.of(2026, 6, 9, 20, 0)));
+        tasks.add(new Deadlines("early", LocalDateTime.of(2026, 6, 1, 0, 0)));
+        tasks.add(new Deadlines("too late", LocalDateTime.of(2026, 6, 5, 0, 0)));
+        tasks.add(new Deadlines("past", LocalDateTime.of(2026, 5, 31, 23, 59)));
+
+        TaskView reminders = tasks.getReminders(LocalDate.of(2026, 6, 1), 3);
+        assertEquals(3, reminders.size());
+        assertEquals("[D][ ] early (by: Jun 1 2026 00:00)", reminders.get(0).toString());
+        assertEquals("[E][ ] raid (from: Jun 2 2026 20:00 to: Jun 9 2026 20:00)", reminders.get(1).toString());
+        assertEquals("[D][ ] late (by: Jun 4 2026 23:59)", reminders.get(2).toString());
+    }
+
+    @Test
+    public void indexOfId_afterDeletes_followsTaskToNewPosition() {
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 200; i++) {
+            tasks.add(new ToDos("creep wave " + i));
+        }
+        int id = tasks.get(150).getId();
+
+        for (int i = 0; i < 100; i++) {
+            tasks.delete(0);
+        }
+
+        assertEquals(50, tasks.indexOfId(id));
+        assertEquals("[T][ ] creep wave 150", tasks.get(50).toString());
+        assertEquals(-1, tasks.indexOfId(tasks.size() + 1000));
+    }
+
+    @Test
+    public void columnarLayout_markDeleteAndQuery_matchesObjectLayout() {
+        TaskList tasks = new TaskList(new ArrayList<>(), TaskList.Layout.COLUMNAR);
+        tasks.add(new ToDos("buy wards"));
+        tasks.add(new Deadlines("buy boots", LocalDateTime.of(2026, 7, 1, 9, 30)));
+        tasks.add(new Events("clash", LocalDateTime.of(2026, 7, 1, 20, 0), LocalDateTime.of(2026, 7, 2, 1, 0)));
+
+        tasks.markAsDone(1);
+        tasks.delete(0);
+
+        assertEquals(2, tasks.size());
+        assertEquals("[D][X] buy boots (by: Jul 1 2026 09:30)", tasks.get(0).toString());
+        assertEquals("[E][ ] clash (from: Jul 1 2026 20:00 to: Jul 2 2026 01:00)", tasks.get(1).toString());
+        assertEquals(3, tasks.get(1).getId());
+        assertEquals(1, tasks.findTasks("buy").size());
+        assertEquals(2, tasks.getTasksOn(LocalDate.of(2026, 7, 1)).size());
+    }
+
+    @Test
+    public void concurrentList_changesAfterSnapshot_snapshotUnchanged() {
+        TaskList tasks = new TaskList(new ArrayList<>(), TaskList.Layout.OBJECTS, true);
+        tasks.add(new ToDos("stack camp"));
+        tasks.add(new ToDos("pull camp"));
+        TaskList.Snapshot before = tasks.getSnapshot();
+
+        tasks.markAsDone(0);
+        tasks.delete(1);
+        tasks.add(new ToDos("smoke gank"));
+
+        assertEquals(2, before.size());
+        assertEquals("[T][ ] stack camp", before.getTasks().get(0).toString());
+        assertEquals("[T][ ] pull camp", before.getTasks().get(1).toString());
+        assertEquals(3, tasks.getSnapshot().getVersion() - before.getVersion());
+        assertEquals("[T][X] stack camp", tasks.get(0).toString());
+        assertEquals("[T][ ] smoke gank", tasks.get(1).toString());
+    }
+
+    @Test
+    public void findTasks_parallelScan_keepsListOrder() {
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 20_000; i++) {
+            tasks.add(new ToDos(i % 3 == 0 ? "ab " + i : "cd " + i));
+        }
+        tasks.setParallelThreshold(1);
+
+        TaskView matches = tasks.findTasks("ab");
+        assertEquals(6667, matches.size());
+        assertEquals("[T][ ] ab 0", matches.get(0).toString());
+        assertEquals("[T][ ] ab 19998", matches.get(6666).toString());
+    }
+
+    @Test
+    public void findTasks_repeatedUntilChange_servedFromCache() {
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDos("buy salve"));
+        tasks.add(new ToDos("buy tango"));
+
+        TaskView first = tasks.findTasks("buy");
+        assertSame(first, tasks.findTasks("buy"));
+        assertEquals(1, tasks.getCacheHits());
+        assertEquals(1, tasks.getCacheMisses());
+
+        tasks.markAsDone(0);
+        TaskView afterMark = tasks.findTasks("buy");
+        assertEquals("[T][X] buy salve", afterMark.get(0).toString());
+        assertEquals(2, tasks.getCacheMisses());
+
+        tasks.getReminders(LocalDate.of(2026, 8, 1), 7);
+        tasks.getReminders(LocalDate.of(2026, 8, 2), 7);
+        assertEquals(4, tasks.getCacheMisses());
+    }
+
+    @Test
+    public void findTasks_shortKeyword_filtersLazilyUntilListChanges() {
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(new ToDos("ward " + i));
+        }
+
+        TaskView view = tasks.findTasks("wa");
+        List<Task> firstTwo = view.first(2);
+        assertEquals(2, firstTwo.size());
+        assertEquals("[T][ ] ward 1", firstTwo.get(1).toString());
+        assertEquals(5, view.stream().filter(task -> task.getDescription().compareTo("ward 5") < 0).count());
+        assertEquals(10, view.size());
+
+        tasks.delete(0);
+        assertThrows(ConcurrentModificationException.class, view::size);
+        assertTrue(tasks.findTasks("zz").isEmpty());
+    }
+
+    @Test
+    public void iteratorFrom_secondPage_startsAtOffset() {
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 30; i++) {
+            tasks.add(new ToDos((i % 2 == 0 ? "ward " : "deward ") + i));
+        }
+
+        Iterator<Task> page = tasks.viewAll().iterator(10);
+        assertEquals("[T][ ] ward 10", page.next().toString());
+
+        TaskView matches = tasks.findTasks("de");
+        assertEquals(15, matches.size());
+        Iterator<Task> secondPage = matches.iterator(10);
+        assertEquals("[T][ ] deward 21", secondPage.next().toString());
+        assertTrue(!matches.iterator(15).hasNext());
+    }
+
+    @Test
+    public void query_combinedFilters_matchesAllConditionsInListOrder() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Deadlines("report draft", LocalDateTime.of(2026, 9, 1, 12, 0)));
+        tasks.add(new ToDos("report template"));
+        tasks.add(new Deadlines("report final", LocalDateTime.of(2026, 9, 20, 12, 0)));
+        tasks.add(new Events("report review", LocalDateTime.of(2026, 9, 2, 9, 0), LocalDateTime.of(2026, 9, 2, 10, 0)));
+        tasks.add(new Deadlines("invoice", LocalDateTime.of(2026, 9, 3, 12, 0)));
+        tasks.markAsDone(0);
+        LocalDateTime now = LocalDateTime.of(2026, 9, 10, 0, 0);
+
+        TaskView overdue = tasks.query(new TaskQuery(null, null, "report", null, null, true), now);
+        assertEquals(1, overdue.size());
+        assertEquals("[E][ ] report review (from: Sep 2 2026 09:00 to: Sep 2 2026 10:00)", overdue.get(0).toString());
+
+        TaskView openDeadlines = tasks.query(new TaskQuery(TaskQuery.Type.DEADLINE, false, null,
+                LocalDate.of(2026, 9, 1), LocalDate.of(2026, 9, 30), false), now);
+        assertEquals(2, openDeadlines.size());
+        assertEquals("[D][ ] report final (by: Sep 20 2026 12:00)", openDeadlines.get(0).toString());
+        assertEquals("[D][ ] invoice (by: Sep 3 2026 12:00)", openDeadlines.get(1).toString());
+    }
+
+    @Test
+    public void getStats_afterChanges_countsByStatusTypeAndWeek() {
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDos("scout"));
+        tasks.add(new Deadlines("missed", LocalDateTime.of(2026, 10, 12, 9, 0)));
+        tasks.add(new Deadlines("later today", LocalDateTime.of(2026, 10, 14, 18, 0)));
+        tasks.add(new Deadlines("next week", LocalDateTime.of(2026, 10, 20, 9, 0)));
+        tasks.add(new Events("long siege", LocalDateTime.of(2026, 10, 1, 9, 0), LocalDateTime.of(2026, 10, 13, 9, 0)));
+        tasks.add(new Events("old raid", LocalDateTime.of(2026, 10, 5, 9, 0), LocalDateTime.of(2026, 10, 5, 11, 0)));
+        LocalDateTime wednesday = LocalDateTime.of(2026, 10, 14, 12, 0);
+
+        TaskStats stats = tasks.getStats(wednesday);
+        assertEquals(6, stats.getTotal());
+        assertEquals(3, stats.getDeadlines());
+        assertEquals(1, stats.getOverdueDeadlines());
+        assertEquals(2, stats.getDeadlinesThisWeek());
+        assertEquals(1, stats.getEventsThisWeek());
+
+        tasks.markAsDone(1);
+        tasks.delete(0);
+        stats = tasks.getStats(wednesday);
+        assertEquals(5, stats.getTotal());
+        assertEquals(1, stats.getDone());
+        assertEquals(0, stats.getTodos());
+        assertEquals(0, stats.getOverdueDeadlines());
+        assertEquals(1, stats.getDeadlinesThisWeek());
+    }
+
+    @Test
+    public void deleteAll_rangeAndRepeats_removesEachOnceInListOrder() {
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= 10; i++) {
+            tasks.add(new ToDos("task " + i));
+        }
+
+        List<Task> marked = tasks.markAllAsDone(new int[] {9, 0, 4});
+        assertEquals("[T][X] task 1", marked.get(0).toString());
+        assertEquals("[T][X] task 10", marked.get(2).toString());
+
+        List<Task> removed = tasks.deleteAll(new int[] {6, 2, 3, 4, 2});
+        assertEquals(4, removed.size());
+        assertEquals("[T][ ] task 3", removed.get(0).toString());
+        assertEquals("[T][ ] task 7", removed.get(3).toString());
+        assertEquals(6, tasks.size());
+        assertEquals("[T][ ] task 6", tasks.get(2).toString());
+        assertEquals(2, tasks.getStats(LocalDateTime.of(2026, 10, 14, 12, 0)).getDone());
+        assertEquals(5, tasks.indexOfId(tasks.get(5).getId()));
+    }
+
+    @Test
+    public void deleteAll_indexOutOfRange_leavesListUnchanged() {
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDos("keep"));
+        tasks.add(new ToDos("also keep"));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> tasks.deleteAll(new int[] {0, 2}));
+        assertThrows(IndexOutOfBoundsException.class, () -> tasks.markAllAsDone(new int[] {1, -1}));
+        assertEquals(2, tasks.size());
+        assertEquals("[T][ ] also keep", tasks.get(1).toString());
+    }
+
+    @Test
+    public void undoRedo_afterBulkDelete_restoresEachVersion() {
+        TaskList tasks = new TaskList(new ArrayList<>(), TaskList.Layout.OBJECTS, false, 2);
+        tasks.add(new ToDos("scout"));
+        tasks.add(new ToDos("ward"));
+        tasks.add(new ToDos("push"));
+        tasks.markAsDone(1);
+        tasks.deleteAll(new int[] {0, 1});
+
+        assertTrue(tasks.undo());
+        assertEquals(3, tasks.size());
+        assertEquals("[T][X] ward", tasks.get(1).toString());
+        assertEquals(1, tasks.findTasks("ward").size());
+        assertTrue(tasks.undo());
+        assertEquals("[T][ ] ward", tasks.get(1).toString());
+        assertFalse(tasks.undo());
+
+        assertTrue(tasks.redo());
+        assertTrue(tasks.redo());
+        assertEquals(1, tasks.size());
+        assertEquals(3, tasks.get(0).getId());
+        assertFalse(tasks.redo());
+    }
+
+    @Test
+    public void recurringEvent_weeklySeries_showsOccurrenceInWindow() {
+        TaskList tasks = new TaskList();
+        Recurrence weekly = new Recurrence(1, Recurrence.Unit.WEEK, LocalDate.of(2026, 11, 30));
+        tasks.add(new RecurringEvents("standup", LocalDateTime.of(2026, 11, 2, 9, 30),
+                LocalDateTime.of(2026, 11, 2, 10, 0), weekly));
+        tasks.add(new Deadlines("report", LocalDateTime.of(2026, 11, 17, 18, 0)));
+
+        TaskView onDate = tasks.getTasksOn(LocalDate.of(2026, 11, 16));
+        assertEquals(1, onDate.size());
+        assertEquals("[E][ ] standup (from: Nov 16 2026 09:30 to: Nov 16 2026 10:00, every week until Nov 30 2026)",
+                onDate.get(0).toString());
+        assertEquals(1, tasks.getTasksOn(LocalDate.of(2026, 11, 17)).size());
+        assertEquals(0, tasks.getTasksOn(LocalDate.of(2026, 12, 7)).size());
+
+        TaskView reminders = tasks.getReminders(LocalDate.of(2026, 11, 17), 7);
+        assertEquals(2, reminders.size());
+        assertEquals("[D][ ] report (by: Nov 17 2026 18:00)", reminders.get(0).toString());
+        assertEquals(LocalDateTime.of(2026, 11, 23, 9, 30), reminders.get(1).getScheduledTime());
+        assertEquals(tasks.get(0).getId(), reminders.get(1).getId());
+    }
+
+    @Test
+    public void reminderScheduler_changesToList_keepRemindersInSync() {
+        LocalDateTime now = LocalDateTime.of(2026, 10, 17, 9, 0);
+        List<Task> heard = new ArrayList<>();
+        ReminderScheduler scheduler = new ReminderScheduler(heard::add,
+                Clock.fixed(now.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        TaskList tasks = new TaskList(new ArrayList<>(), TaskList.Layout.OBJECTS, false, 10);
+        tasks.add(new Deadlines("missed", LocalDateTime.of(2026, 10, 17, 8, 0)));
+        tasks.add(new Deadlines("essay", LocalDateTime.of(2026, 10, 17, 9, 5)));
+        tasks.setReminderScheduler(scheduler);
+        tasks.add(new Events("raid", LocalDateTime.of(2026, 10, 17, 10, 0), LocalDateTime.of(2026, 10, 17, 11, 0)));
+        tasks.add(new RecurringDeadlines("timesheet", LocalDateTime.of(2026, 10, 2, 17, 0),
+                new Recurrence(1, Recurrence.Unit.WEEK, null)));
+        assertEquals(3, scheduler.size());
+
+        tasks.markAsDone(1);
+        tasks.delete(2);
+        assertEquals(1, scheduler.size());
+        tasks.undo();
+        assertEquals(2, scheduler.size());
+
+        List<Task> due = scheduler.advanceTo(LocalDateTime.of(2026, 10, 23, 17, 0));
+        assertEquals(2, due.size());
+        assertEquals("raid", due.get(0).getDescription());
+        assertEquals(LocalDateTime.of(2026, 10, 23, 17, 0), due.get(1).getScheduledTime());
+        assertEquals(1, scheduler.size());
+        assertTrue(heard.isEmpty());
+    }
+}
@@ -1,10 +1,19 @@
 package vex;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -40,4 +49,205 @@ public class StorageTest {
         assertEquals(0, tasks.size(),
                 "Should return an empty list if file is missing/new");
     }
+
+    @Test
+    public void load_journaledChanges_replayedOverSnapshot() throws IOException {
+        Path tempFile = tempDir.resolve("journal_vex.txt");
+        Storage storage = new Storage(tempFile.toString(), true);
+
+        ArrayList<Task> tasks = storage.load();
+        tasks.add(new ToDos("scout rune"));
+        storage.saveAdded(tasks, tasks.get(0));
+        tasks.add(new ToDos("ward river"));
+        storage.saveAdded(tasks, tasks.get(1));
+        tasks.get(1).markAsDone();
+        storage.saveStatusChange(tasks, 1);
+        Task removed = tasks.remove(0);
+        storage.saveDeleted(tasks, removed, 0);
+        storage.flush();
+
+        ArrayList<Task> loadedTasks = new Storage(tempFile.toString(), true).load();
+
+        assertEquals(1, loadedTasks.size());
+        assertEquals("[T][X] ward river", loadedTasks.get(0).toString());
+    }
+
+    @Test
+    public void load_textFileInBinaryMode_migratesAndRoundTrips() throws IOException {
+        Path tempFile = tempDir.resolve("legacy_vex.txt");
+        Files.write(tempFile, List.of(
+                "T | 1 | assignments",
+                "E | 0 | Concert | 2026-01-30T18:00 | 2026-01-30T21:00"));
+        Storage storage = new Storage(tempFile.toString(), false, Storage.SaveFormat.BINARY);
+
+        ArrayList<Task> migrated = storage.load();
+        ArrayList<Task> reloaded = storage.load();
+
+        assertEquals(2, migrated.size());
+        assertEquals(migrated.get(1).toString(), reloaded.get(1).toString());
+        assertEquals("[T][X] assignments", reloaded.get(0).toString());
+
+        Path exported = tempDir.resolve("export.txt");
+        storage.exportAsText(exported.toString());
+        assertEquals("E | 0 | Concert | 2026-01-30T18:00 | 2026-01-30T21:00",
+                Files.readAllLines(exported).get(1));
+    }
+
+    @Test
+    public void load_recordFailsChecksum_recordReportedAsLost() throws IOException {
+        Path tempFile = tempDir.resolve("damaged_vex.txt");
+        Storage storage = new Storage(tempFile.toString());
+
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDos("farm jungle"));
+        tasks.add(new ToDos("push tower"));
+        storage.save(tasks);
+
+        List<String> lines = Files.readAllLines(tempFile);
+        Files.write(tempFile, List.of(lines.get(0), lines.get(1).replace("push", "lose")));
+
+        ArrayList<Task> loadedTasks = storage.load();
+
+        assertEquals(1, loadedTasks.size());
+        assertEquals("[T][ ] farm jungle", loadedTasks.get(0).toString());
+        assertEquals(1, storage.getLostRecords().size());
+        assertTrue(storage.getLostRecords().get(0).startsWith("damaged_vex.txt line 2: "));
+    }
+
+    @Test
+    public void load_recordFailsChecksum_restoredFromBackupAndBackupKept() throws IOException {
+        Path tempFile = tempDir.resolve("backed_up_vex.txt");
+        Path backupFile = tempDir.resolve("backed_up_vex.txt.bak");
+        Storage storage = new Storage(tempFile.toString());
+
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDos("farm jungle"));
+        tasks.add(new ToDos("push tower"));
+        tasks.add(new ToDos("take roshan"));
+        TaskList taskList = new TaskList(tasks);
+        storage.save(taskList.getTasks());
+        storage.save(taskList.getTasks());
+        List<String> goodLines = Files.readAllLines(backupFile);
+
+        List<String> lines = new ArrayList<>(Files.readAllLines(tempFile));
+        lines.set(1, lines.get(1).replace("push", "lose"));
+        Files.write(tempFile, lines);
+
+        ArrayList<Task> loadedTasks = storage.load();
+
+        assertEquals(goodLines, Files.readAllLines(backupFile));
+        assertTrue(storage.getLostRecords().isEmpty());
+        assertEquals(3, loadedTasks.size());
+        assertEquals("[T][ ] push tower", loadedTasks.get(1).toString());
+        assertEquals(2, loadedTasks.get(1).getId());
+    }
+
+    @Test
+    public void load_journalEndsInTornRecord_recordReportedAsLost() throws IOException {
+        Path tempFile = tempDir.resolve("torn_vex.txt");
+        Path journalFile = tempDir.resolve("torn_vex.txt.journal");
+        Storage storage = new Storage(tempFile.toString(), true);
+
+        ArrayList<Task> tasks = storage.load();
+        tasks.add(new ToDos("farm jungle"));
+        storage.saveAdded(tasks, tasks.get(0));
+        tasks.add(new ToDos("push tower"));
+        storage.saveAdded(tasks, tasks.get(1));
+        storage.flush();
+
+        List<String> lines = Files.readAllLines(journalFile);
+        String lastLine = lines.get(1);
+        Files.write(journalFile, List.of(lines.get(0), lastLine.substring(0, lastLine.indexOf("tower") + 2)));
+
+        Storage reloaded = new Storage(tempFile.toString(), true);
+        ArrayList<Task> loadedTasks = reloaded.load();
+
+        assertEquals(1, loadedTasks.size());
+        assertEquals("[T][ ] farm jungle", loadedTasks.get(0).toString());
+        assertEquals(1, reloaded.getLostRecords().size());
+        assertTrue(reloaded.getLostRecords().get(0).startsWith("torn_vex.txt.journal line 2: "));
+    }
+
+    @Test
+    public void load_afterDelete_keepsTaskIds() throws IOException {
+        Path tempFile = tempDir.resolve("ids_vex.txt");
+        Storage storage = new Storage(tempFile.toString(), true);
+
+        TaskList tasks = new TaskList(storage.load());
+        tasks.add(new ToDos("farm jungle"));
+        tasks.add(new ToDos("push tower"));
+        tasks.add(new ToDos("take roshan"));
+        tasks.delete(0);
+        storage.save(tasks.getTasks());
+
+        ArrayList<Task> loadedTasks = new Storage(tempFile.toString(), true).load();
+
+        assertEquals(2, loadedTasks.get(0).getId());
+        assertEquals(3, loadedTasks.get(1).getId());
+    }
+
+    @Test
+    public void load_journaledChangesById_replayedOntoTheSameTasks() throws IOException {
+        Path tempFile = tempDir.resolve("journal_ids_vex.txt");
+        Storage storage = new Storage(tempFile.toString(), true);
+
+        TaskList tasks = new TaskList(storage.load());
+        for (String description : List.of("farm jungle", "push tower", "take roshan")) {
+            tasks.add(new ToDos(description));
+            storage.saveAdded(tasks.getTasks(), tasks.get(tasks.size() - 1));
+        }
+        Task removed = tasks.delete(0);
+        storage.saveDeleted(tasks.getTasks(), removed, 0);
+        tasks.markAsDone(1);
+        storage.saveStatusChange(tasks.getTasks(), 1);
+        storage.flush();
+
+        List<String> journalLines = Files.readAllLines(tempDir.resolve("journal_ids_vex.txt.journal"));
+        ArrayList<Task> loadedTasks = new Storage(tempFile.toString(), true).load();
+
+        assertTrue(journalLines.get(3).startsWith("4 X #1 | #"), journalLines.toString());
+        assertTrue(journalLines.get(4).startsWith("5 M #3 | #"), journalLines.toString());
+        assertEquals(2, loadedTasks.size());
+        assertEquals("[T][ ] push tower", loadedTasks.get(0).toString());
+        assertEquals("[T][X] take roshan", loadedTasks.get(1).toString());
+        assertEquals(3, loadedTasks.get(1).getId());
+    }
+
+    @Test
+    public void saveAndLoad_recurringDeadline_keepsRuleInBothFormats() throws IOException {
+        Recurrence monthly = new Recurrence(1, Recurrence.Unit.MONTH, LocalDate.of(2026, 12, 31));
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new RecurringDeadlines("report", LocalDateTime.of(2026, 10, 31, 18, 0), monthly));
+
+        for (Storage.SaveFormat format : Storage.SaveFormat.values()) {
+            Path tempFile = tempDir.resolve("recurring_" + format + ".txt");
+            new Storage(tempFile.toString(), false, format).save(tasks);
+            ArrayList<Task> loadedTasks = new Storage(tempFile.toString(), false, format).load();
+
+            assertEquals(1, loadedTasks.size());
+            assertEquals("D | 0 | report | 2026-10-31T18:00 | 1m..2026-12-31", loadedTasks.get(0).toFileString());
+            assertEquals(LocalDateTime.of(2026, 11, 30, 18, 0),
+                    loadedTasks.get(0).getOccurrenceStartingFrom(LocalDateTime.of(2026, 11, 1, 0, 0))
+                            .getScheduledTime());
+        }
+    }
+
+    @Test
+    public void runBatch_scriptWithError_savedOnceWithoutJournal() throws IOException {
+        Path tempFile = tempDir.resolve("batch_vex.txt");
+        Storage storage = new Storage(tempFile.toString(), true);
+        TaskList tasks = new TaskList(storage.load());
+        String script = "todo farm jungle\n\nmark 5\ntodo push tower\nmark 2\n";
+
+        BatchRunner.Report report = new BatchRunner(tasks, storage, new Ui(true, false))
+                .run(new BufferedReader(new StringReader(script)));
+
+        assertTrue(report.isSaved());
+        assertEquals(4, report.getCommandCount());
+        assertEquals(List.of("Line 3: You cannot attack what is not there!"), report.getErrorLines());
+        assertFalse(Files.exists(tempDir.resolve("batch_vex.txt.journal")));
+        ArrayList<Task> loadedTasks = new Storage(tempFile.toString(), true).load();
+        assertEquals(2, loadedTasks.size());
+        assertEquals("[T][X] push tower", loadedTasks.get(1).toString());
+    }
 }